@@ -4,6 +4,8 @@ import com.revoktek.services.model.User;
 import com.revoktek.services.model.enums.Authority;
 import com.revoktek.services.service.CategoryService;
 import com.revoktek.services.service.GroupService;
+import com.revoktek.services.service.UserDependentsService;
+import com.revoktek.services.service.UserSearchIndexService;
 import com.revoktek.services.service.UserService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,12 +14,14 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 @SpringBootApplication
+@EnableScheduling
 @Log4j2
 public class CaminoDeVidaApplication {
 
@@ -28,7 +32,8 @@ public class CaminoDeVidaApplication {
 	@Bean
 	public CommandLineRunner initService(
 										 Environment environment, UserService userService, GroupService groupService,
-                                        CategoryService categoryService,
+                                        CategoryService categoryService, UserDependentsService userDependentsService,
+                                        UserSearchIndexService userSearchIndexService,
 										@Value("${spring.datasource.url}") String dataSourceUrl) {
 		return args -> {
 			log.info("==========INIT LOG==========");
@@ -50,6 +55,8 @@ public class CaminoDeVidaApplication {
 			log.info("🟢 -- Default Users checked or created successfully");
             categoryService.initDefaultCategories();
             groupService.initializeDefaultGroups();
+            userDependentsService.migrateLegacyDependents();
+            userSearchIndexService.initializeSearchKeys();
 		};
 	}
 
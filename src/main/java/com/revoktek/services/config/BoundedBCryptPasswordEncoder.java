@@ -0,0 +1,94 @@
+package com.revoktek.services.config;
+
+import com.revoktek.services.rulesException.PasswordHashingBusyException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCryptPasswordEncoder que ejecuta el hashing y la verificación en un pool propio y acotado.
+ * <p>
+ * BCrypt es CPU intensivo: sin límite, una ráfaga de logins ocupa todos los hilos de Tomcat y
+ * el resto de los endpoints deja de responder. Aquí el trabajo se limita a {@code poolSize}
+ * hilos con una cola de {@code queueCapacity}; si la cola está llena o la espera excede
+ * {@code waitTimeoutMs} se lanza {@link PasswordHashingBusyException} (503) de inmediato.
+ * </p>
+ * <p>
+ * {@link #upgradeEncoding(String)} se hereda: si el costo configurado aumenta, Spring Security
+ * vuelve a codificar al iniciar sesión las contraseñas con un costo menor (UserService implementa
+ * UserDetailsPasswordService). Bajar el costo no recodifica los hashes existentes.
+ * </p>
+ */
+@Log4j2
+public class BoundedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+
+    public BoundedBCryptPasswordEncoder(int strength, int poolSize, int queueCapacity, long waitTimeoutMs) {
+        super(strength);
+        this.waitTimeoutMs = waitTimeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> super.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Detiene el pool; Spring lo invoca al destruir el bean.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Pool de BCrypt saturado ({} en cola)", executor.getQueue().size());
+            throw new PasswordHashingBusyException("El servidor está ocupado, intenta de nuevo en unos segundos");
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Tiempo de espera agotado en el pool de BCrypt");
+            throw new PasswordHashingBusyException("El servidor está ocupado, intenta de nuevo en unos segundos");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Operación de contraseña interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.revoktek.services.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra en Hibernate la función {@code match_against(columna, texto)}, que se traduce a
+ * {@code MATCH(columna) AGAINST(texto IN BOOLEAN MODE)} de MySQL y devuelve la relevancia.
+ * <p>
+ * JPQL/Criteria no tienen sintaxis para MATCH ... AGAINST; con esta función los filtros de
+ * {@link com.revoktek.services.specification.UserSpecification} pueden usar los índices
+ * FULLTEXT (ngram) de las columnas search_* de users.
+ * Se carga por ServiceLoader desde META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ * </p>
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH_AGAINST,
+                "match(?1) against(?2 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -2,14 +2,18 @@ package com.revoktek.services.config;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revoktek.services.config.filter.IdempotencyFilter;
 import com.revoktek.services.config.filter.JwtAuthenticationEntryPoint;
 import com.revoktek.services.config.filter.JwtAuthenticationFilter;
 import com.revoktek.services.config.filter.JwtAuthorizationFilter;
 import com.revoktek.services.config.filter.LoggInterceptor;
+import com.revoktek.services.config.filter.RateLimitFilter;
+import com.revoktek.services.config.filter.SharedMultipartResolver;
 import com.revoktek.services.service.UserService;
 import com.revoktek.services.utils.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -35,9 +39,14 @@ public class WebSecurityConfig {
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private static final String API_PUBLIC_PATTERN = "/api/public/**";
 
+    // hashing acotado a un pool propio para que una ráfaga de logins no agote los hilos de Tomcat
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder bCryptPasswordEncoder(@Value("${security.bcrypt.strength:10}") int strength,
+                                                      @Value("${security.bcrypt.poolSize:0}") int poolSize,
+                                                      @Value("${security.bcrypt.queueCapacity:64}") int queueCapacity,
+                                                      @Value("${security.bcrypt.waitTimeoutMs:5000}") long waitTimeoutMs) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedBCryptPasswordEncoder(strength, threads, queueCapacity, waitTimeoutMs);
     }
 
     // this bean replace manual injection of userService & password encoder
@@ -47,10 +56,10 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain configure(HttpSecurity httpSecurity, AuthenticationManager authenticationManager, JwtUtil jwtUtil, LoggInterceptor loggInterceptor, ObjectMapper objectMapper, UserService userService, SpringValidatorAdapter validatorAdapter) throws Exception {
+    public SecurityFilterChain configure(HttpSecurity httpSecurity, AuthenticationManager authenticationManager, JwtUtil jwtUtil, LoggInterceptor loggInterceptor, IdempotencyFilter idempotencyFilter, RateLimitFilter rateLimitFilter, SharedMultipartResolver sharedMultipartResolver, ObjectMapper objectMapper, UserService userService, SpringValidatorAdapter validatorAdapter) throws Exception {
 
         JwtAuthenticationFilter jwtAuthenticationFilter =
-                new JwtAuthenticationFilter(authenticationManager, jwtUtil, objectMapper, userService, validatorAdapter);
+                new JwtAuthenticationFilter(authenticationManager, jwtUtil, objectMapper, userService, validatorAdapter, rateLimitFilter, sharedMultipartResolver);
         JwtAuthorizationFilter jwtAuthorizationFilter = new JwtAuthorizationFilter(jwtUtil);
         jwtAuthenticationFilter.setFilterProcessesUrl("/api/login");
 
@@ -69,6 +78,7 @@ public class WebSecurityConfig {
                 .exceptionHandling(handler -> handler.authenticationEntryPoint(jwtAuthenticationEntryPoint))
                 .addFilter(jwtAuthenticationFilter)
                 .addFilterAfter(loggInterceptor, JwtAuthenticationFilter.class)
+                .addFilterAfter(idempotencyFilter, LoggInterceptor.class)
                 .addFilterBefore(jwtAuthorizationFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -3,49 +3,55 @@ package com.revoktek.services.config.filter;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import lombok.Getter;
-import org.springframework.util.StreamUtils;
 
-import java.io.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
-// clase para leer el cuerpo de solicitud más de una vez con la finalidad de escribirlo sobre el log.
+// clase para capturar el cuerpo de solicitud mientras se lee, con la finalidad de escribirlo sobre el log.
+// Solo se conservan los primeros bytes (capacidad del buffer recibido); el cuerpo completo nunca se copia.
 
-@Getter
 public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
 
-    private final byte[] cachedBody;
-    private final boolean isMultipart;
+    private final byte[] capture;
+    private CachedBodyServletInputStream inputStream;
+    private BufferedReader reader;
 
-    public CachedBodyHttpServletRequest(HttpServletRequest request) throws IOException {
+    public CachedBodyHttpServletRequest(HttpServletRequest request, byte[] capture) {
         super(request);
-        this.isMultipart = isMultipart(request);
-        if (!this.isMultipart) {
-            InputStream requestInputStream = request.getInputStream();
-            this.cachedBody = StreamUtils.copyToByteArray(requestInputStream);
-        } else {
-            this.cachedBody = new byte[0]; // Initialize with an empty byte array for multipart requests
-        }
+        this.capture = capture;
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        if (this.isMultipart) {
-            return super.getInputStream();
+        if (this.inputStream == null) {
+            this.inputStream = new CachedBodyServletInputStream(super.getInputStream(), this.capture);
         }
-        return new CachedBodyServletInputStream(this.cachedBody);
+        return this.inputStream;
     }
 
     @Override
     public BufferedReader getReader() throws IOException {
-        if (this.isMultipart) {
-            return super.getReader();
+        if (this.reader == null) {
+            this.reader = new BufferedReader(new InputStreamReader(getInputStream(), getCharset()));
+        }
+        return this.reader;
+    }
+
+    /**
+     * Cuerpo capturado hasta el momento (solo lo que la aplicación ya leyó, hasta el límite del buffer).
+     */
+    public String getCapturedBody() {
+        if (this.inputStream == null) {
+            return "";
         }
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(this.cachedBody);
-        return new BufferedReader(new InputStreamReader(byteArrayInputStream, StandardCharsets.UTF_8));
+        return new String(this.capture, 0, this.inputStream.getCaptured(), getCharset());
     }
 
-    private boolean isMultipart(HttpServletRequest request) {
-        return request.getContentType() != null && request.getContentType().startsWith("multipart/form-data");
+    private Charset getCharset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
     }
 }
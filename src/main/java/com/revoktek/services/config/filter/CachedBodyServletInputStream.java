@@ -3,34 +3,60 @@ package com.revoktek.services.config.filter;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
+/**
+ * Stream que lee directamente del request original y, mientras se consume, copia los primeros
+ * bytes (hasta la capacidad del buffer) para poder escribirlos en el log.
+ * No hace una segunda copia completa del cuerpo ni lo lee por adelantado.
+ */
 class CachedBodyServletInputStream extends ServletInputStream {
 
-    private final ByteArrayInputStream buffer;
+    private final ServletInputStream delegate;
+    private final byte[] capture;
+    private int captured;
 
-    public CachedBodyServletInputStream(byte[] cachedBody) {
-        this.buffer = new ByteArrayInputStream(cachedBody);
+    public CachedBodyServletInputStream(ServletInputStream delegate, byte[] capture) {
+        this.delegate = delegate;
+        this.capture = capture;
     }
 
     @Override
     public boolean isFinished() {
-        return buffer.available() == 0;
+        return delegate.isFinished();
     }
 
     @Override
     public boolean isReady() {
-        return true;
+        return delegate.isReady();
     }
 
     @Override
     public void setReadListener(ReadListener listener) {
-        // no-op
+        delegate.setReadListener(listener);
     }
 
     @Override
     public int read() throws IOException {
-        return buffer.read();
+        int value = delegate.read();
+        if (value != -1 && captured < capture.length) {
+            capture[captured++] = (byte) value;
+        }
+        return value;
     }
-}
\ No newline at end of file
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = delegate.read(b, off, len);
+        if (read > 0 && captured < capture.length) {
+            int toCopy = Math.min(read, capture.length - captured);
+            System.arraycopy(b, off, capture, captured, toCopy);
+            captured += toCopy;
+        }
+        return read;
+    }
+
+    int getCaptured() {
+        return captured;
+    }
+}
@@ -0,0 +1,142 @@
+package com.revoktek.services.config.filter;
+
+import com.revoktek.services.model.enums.Catalog;
+import com.revoktek.services.service.CatalogVersionService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché de respuestas para los listados de catálogo y la búsqueda pública de grupos.
+ * <p>
+ * Cada respuesta se guarda por ruta + parámetros junto con la versión vigente del catálogo
+ * ({@link CatalogVersionService}). Cuando los servicios modifican el catálogo la versión cambia
+ * y las entradas anteriores simplemente dejan de consultarse (el LRU las desaloja).
+ * </p>
+ * <p>
+ * Se emite un ETag fuerte derivado de la versión y de la petición, de modo que los clientes que
+ * envían If-None-Match reciben 304 sin tocar la base de datos ni serializar con Jackson.
+ * </p>
+ * <p>
+ * No se agrega a la cadena de Spring Security: se registra como filtro del contenedor y corre
+ * después de ella, así la autorización ya fue evaluada antes de responder desde la caché.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CatalogCacheFilter extends OncePerRequestFilter {
+
+    private static final String GROUP_BY_CATEGORY_PREFIX = "/api/group/findGroupByCategory/";
+
+    private final CatalogVersionService catalogVersionService;
+    private final Map<String, CachedResponse> cache;
+
+    public CatalogCacheFilter(CatalogVersionService catalogVersionService,
+                              @Value("${catalogCache.maxEntries:1000}") int maxEntries) {
+        this.catalogVersionService = catalogVersionService;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || resolveCatalog(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Catalog catalog = resolveCatalog(request.getRequestURI());
+        long version = catalogVersionService.currentVersion(catalog);
+        String requestKey = request.getRequestURI() + '?' + request.getQueryString();
+        String key = catalog.name() + '|' + version + '|' + requestKey;
+        String eTag = buildETag(version, requestKey);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(eTag) || "*".equals(ifNoneMatch.trim()))) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        CachedResponse cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+
+        if (cached != null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            if (cached.contentType() != null) {
+                response.setContentType(cached.contentType());
+            }
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setContentLength(cached.body().length);
+            response.getOutputStream().write(cached.body());
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (isCacheable(request, responseWrapper)) {
+                CachedResponse entry = new CachedResponse(responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray());
+                synchronized (cache) {
+                    cache.put(key, entry);
+                }
+                responseWrapper.setHeader(HttpHeaders.ETAG, eTag);
+                log.debug("Respuesta de catálogo {} cacheada para {}", catalog, requestKey);
+            }
+        } finally {
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Solo se cachean respuestas exitosas. ExceptionController responde varios errores con 200 y
+     * success=false (parámetros faltantes, validaciones, campos únicos); en esos casos
+     * DispatcherServlet deja la excepción resuelta en EXCEPTION_ATTRIBUTE y la respuesta no se guarda.
+     */
+    private boolean isCacheable(HttpServletRequest request, ContentCachingResponseWrapper response) {
+        return response.getStatus() == HttpServletResponse.SC_OK
+                && request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE) == null;
+    }
+
+    /**
+     * Solo se cachean los listados y la búsqueda pública; los detalles incluyen miembros
+     * que cambian con cada inscripción y no dependen de la versión del catálogo.
+     */
+    private Catalog resolveCatalog(String uri) {
+        return switch (uri) {
+            case "/api/group" -> Catalog.GROUPS;
+            case "/api/worship" -> Catalog.WORSHIPS;
+            case "/api/specialEvent" -> Catalog.SPECIAL_EVENTS;
+            default -> uri.startsWith(GROUP_BY_CATEGORY_PREFIX) ? Catalog.GROUPS : null;
+        };
+    }
+
+    private String buildETag(long version, String requestKey) {
+        return "\"" + version + '-'
+                + DigestUtils.md5DigestAsHex(requestKey.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private record CachedResponse(String contentType, byte[] body) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.revoktek.services.config.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filtro que respeta el header Idempotency-Key en los endpoints de inscripción y salida.
+ * <p>
+ * La primera respuesta exitosa (2xx) se guarda en una caché en memoria acotada (LRU con vigencia).
+ * Los reintentos con la misma llave, del mismo usuario y sobre la misma ruta se responden desde la
+ * caché sin llegar a los servicios ni a la base de datos. Mientras la petición original sigue en
+ * proceso, los duplicados reciben 409.
+ * </p>
+ */
+@Component
+@Log4j2
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of(
+            "/api/group/join", "/api/group/leave",
+            "/api/worship/join", "/api/worship/leave",
+            "/api/specialEvent/join", "/api/specialEvent/leave",
+            "/api/specialEvent/hold", "/api/specialEvent/confirm"
+    );
+
+    private static final CachedResponse IN_FLIGHT = new CachedResponse(0, null, new byte[0], Long.MAX_VALUE);
+
+    private final Map<String, CachedResponse> cache;
+    private final long ttlMillis;
+
+    public IdempotencyFilter(@Value("${idempotency.maxEntries:10000}") int maxEntries,
+                             @Value("${idempotency.ttlMinutes:60}") long ttlMinutes) {
+        this.ttlMillis = ttlMinutes * 60 * 1000;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(IDEMPOTENCY_HEADER) == null
+                || !IDEMPOTENT_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = buildKey(request);
+
+        CachedResponse cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+            if (cached != null && cached.isExpired()) {
+                cache.remove(key);
+                cached = null;
+            }
+            if (cached == null) {
+                cache.put(key, IN_FLIGHT);
+            }
+        }
+
+        if (cached == IN_FLIGHT) {
+            response.setHeader("error", "A request with the same Idempotency-Key is still in progress");
+            response.sendError(HttpServletResponse.SC_CONFLICT, "Conflict");
+            return;
+        }
+
+        if (cached != null) {
+            log.info("🟡 Respuesta idempotente reutilizada para {} {}", request.getMethod(), request.getRequestURI());
+            response.setStatus(cached.status());
+            if (cached.contentType() != null) {
+                response.setContentType(cached.contentType());
+            }
+            response.setHeader("Idempotent-Replay", "true");
+            response.setContentLength(cached.body().length);
+            response.getOutputStream().write(cached.body());
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                CachedResponse entry = new CachedResponse(status, responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray(), System.currentTimeMillis() + ttlMillis);
+                synchronized (cache) {
+                    cache.put(key, entry);
+                }
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                synchronized (cache) {
+                    cache.remove(key);
+                }
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * La llave se limita al usuario autenticado y a la petición concreta para que
+     * dos clientes no puedan reutilizar respuestas ajenas con la misma Idempotency-Key.
+     */
+    private String buildKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String principal = auth != null ? String.valueOf(auth.getPrincipal()) : "";
+        return principal + '|' + request.getMethod() + '|' + request.getRequestURI()
+                + '?' + request.getQueryString() + '|' + request.getHeader(IDEMPOTENCY_HEADER);
+    }
+
+    private record CachedResponse(int status, String contentType, byte[] body, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
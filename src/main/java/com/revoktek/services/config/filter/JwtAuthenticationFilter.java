@@ -3,6 +3,8 @@ package com.revoktek.services.config.filter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.revoktek.services.model.User;
 import com.revoktek.services.model.dto.LoginDTO;
+import com.revoktek.services.rulesException.PasswordHashingBusyException;
+import com.revoktek.services.rulesException.TooManyLoginAttemptsException;
 import com.revoktek.services.service.UserService;
 import com.revoktek.services.utils.JwtUtil;
 import jakarta.servlet.FilterChain;
@@ -20,12 +22,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
-import org.springframework.web.multipart.support.StandardServletMultipartResolver;
 
 import java.io.IOException;
 
-import static org.springframework.web.multipart.support.MultipartResolutionDelegate.isMultipartRequest;
-
 @RequiredArgsConstructor
 @Log4j2
 public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
@@ -34,6 +33,8 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     private final ObjectMapper objectMapper;
     private final UserService userService;
     private final SpringValidatorAdapter validatorAdapter;
+    private final RateLimitFilter rateLimitFilter;
+    private final SharedMultipartResolver sharedMultipartResolver;
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response)
@@ -42,9 +43,9 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
             throw new AuthenticationServiceException("Authentication method not supported: " + request.getMethod());
         }
 
-        if (isMultipartRequest(request)) {
-            StandardServletMultipartResolver resolver = new StandardServletMultipartResolver();
-            MultipartHttpServletRequest multipartRequest = resolver.resolveMultipart(request);
+        if (sharedMultipartResolver.isMultipart(request)) {
+            // Normalmente ya viene resuelto por LoggInterceptor; no se vuelven a procesar las partes
+            MultipartHttpServletRequest multipartRequest = sharedMultipartResolver.resolve(request);
             String username = multipartRequest.getParameter("username");
             String password = multipartRequest.getParameter("password");
 
@@ -59,6 +60,11 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
 
             // Validation block
             validateParams(credentials);
+
+            // Límite por username antes de BCrypt y de consultar la base de datos
+            if (!rateLimitFilter.allowLoginAttempt(request, username)) {
+                throw new TooManyLoginAttemptsException("Too many login attempts, try again later");
+            }
             UsernamePasswordAuthenticationToken authRequest = getUsernamePasswordAuthenticationToken(credentials);
             return authenticationManager.authenticate(authRequest);
         } else {
@@ -81,7 +87,7 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
         LoginDTO credenciales = (LoginDTO) authResult.getDetails();
 
 
-        String token = jwtUtil.getToken(usuario.getUsername(),usuario.getSimpleAuthorities());
+        String token = jwtUtil.getToken(usuario.getIdUser(), usuario.getUsername(), usuario.getSimpleAuthorities());
         String refreshToken = jwtUtil.getRefreshToken(usuario.getUsername());
         response.addHeader("Authorization", "Bearer " + token);
         response.addHeader("refresh_token", "Bearer " + refreshToken);
@@ -94,6 +100,17 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response,
                                               AuthenticationException failed) {
+        if (failed instanceof TooManyLoginAttemptsException) {
+            rateLimitFilter.rejectLoginAttempt(response);
+            return;
+        }
+        if (failed instanceof PasswordHashingBusyException) {
+            // pool de BCrypt saturado: no es un error de credenciales
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.addHeader("Retry-After", "2");
+            response.addHeader("error", failed.getMessage());
+            return;
+        }
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.addHeader("error", failed.getMessage());
     }
@@ -4,28 +4,88 @@ package com.revoktek.services.config.filter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.log4j.Log4j2;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
-import org.springframework.web.multipart.support.StandardServletMultipartResolver;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 @Component
-@Log4j2
-@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+// después de RateLimitFilter: las peticiones rechazadas no pagan el costo de leer el cuerpo
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 public class LoggInterceptor extends OncePerRequestFilter {
 
     private static final int MAX_LOG_LENGTH = 100; // Adjust as needed
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SharedMultipartResolver sharedMultipartResolver;
+
+    // Rutas (prefijos) cuyo cuerpo se escribe en el log; vacío = no se captura ningún cuerpo
+    @Value("${logging.requestBody.paths:}")
+    private String[] bodyLogPaths;
+
+    // Bytes máximos del cuerpo que se conservan para el log
+    @Value("${logging.requestBody.maxBytes:2048}")
+    private int bodyLogMaxBytes;
+
+    // Un buffer por hilo de Tomcat: se reutiliza entre peticiones en lugar de asignar uno nuevo
+    private final ThreadLocal<byte[]> captureBuffers = new ThreadLocal<>();
+
+    // Logger del access log (JSON, appender asíncrono en log4j2-spring.xml)
+    private static final Logger ACCESS_LOG = LogManager.getLogger("ACCESS_LOG");
+
+    // Fracción de peticiones exitosas que se registran (1.0 = todas)
+    @Value("${logging.access.sampleRate:1.0}")
+    private double defaultSampleRate;
+
+    // Muestreo por ruta: "prefijo=fracción" separados por coma, ej. /api/group=0.1,/api/worship=0.1
+    @Value("${logging.access.routeSampleRates:}")
+    private String[] routeSampleRateEntries;
+
+    private final Map<String, Double> routeSampleRates = new LinkedHashMap<>();
+
+    @PostConstruct
+    void loadRouteSampleRates() {
+        validateSampleRate("logging.access.sampleRate", defaultSampleRate);
+        for (String entry : routeSampleRateEntries) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalStateException("logging.access.routeSampleRates: se esperaba 'prefijo=fracción' y se recibió '" + entry + "'");
+            }
+            String route = parts[0].trim();
+            double rate;
+            try {
+                rate = Double.parseDouble(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("logging.access.routeSampleRates: la fracción de '" + route + "' no es un número: '" + parts[1].trim() + "'");
+            }
+            validateSampleRate("logging.access.routeSampleRates[" + route + "]", rate);
+            routeSampleRates.put(route, rate);
+        }
+    }
+
+    private static void validateSampleRate(String property, double rate) {
+        if (Double.isNaN(rate) || rate < 0 || rate > 1) {
+            throw new IllegalStateException(property + " debe estar entre 0 y 1, se recibió " + rate);
+        }
+    }
 
     private String getSanitizedRequestBody(String requestBody) throws IOException {
         JsonNode jsonNode = objectMapper.readTree(requestBody);
@@ -36,7 +96,9 @@ public class LoggInterceptor extends OncePerRequestFilter {
     private void sanitizeJsonNode(JsonNode jsonNode) {
         jsonNode.fields().forEachRemaining(entry -> {
             JsonNode value = entry.getValue();
-            if (value.isTextual() && value.asText().length() > MAX_LOG_LENGTH) {
+            if (entry.getKey().equals("password")) {
+                ((ObjectNode) jsonNode).put(entry.getKey(), "[CONTENT OMITTED]");
+            } else if (value.isTextual() && value.asText().length() > MAX_LOG_LENGTH) {
                 ((ObjectNode) jsonNode).put(entry.getKey(), "[CONTENT OMITTED]");
             } else if (value.isObject()) {
                 sanitizeJsonNode(value);
@@ -44,90 +106,121 @@ public class LoggInterceptor extends OncePerRequestFilter {
         });
     }
 
-    private String getHeadersInfo(HttpServletRequest request) {
-        StringBuilder headers = new StringBuilder();
-        // List of headers to log
-        String[] headersToLog = {"host", "content-type", "content-length"};
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (isMultipart(request)) {
+            // Se resuelve una sola vez; los filtros siguientes reutilizan este MultipartHttpServletRequest
+            MultipartHttpServletRequest multipartRequest = sharedMultipartResolver.resolve(request);
+            doFilterAndLogAccess(multipartRequest, null, response, filterChain);
+            return;
+        }
 
-        for (String header : headersToLog) {
-            String headerValue = request.getHeader(header);
-            if (headerValue != null) {
-                headers.append(header).append(": ").append(headerValue).append(", ");
+        CachedBodyHttpServletRequest cachedBodyHttpServletRequest =
+                isBodyLogEnabled(request) ? new CachedBodyHttpServletRequest(request, captureBuffer()) : null;
+        doFilterAndLogAccess(request, cachedBodyHttpServletRequest, response, filterChain);
+    }
+
+    /**
+     * Ejecuta la cadena y escribe una sola línea estructurada (JSON) en el logger ACCESS_LOG.
+     * El appender es asíncrono, así que el hilo de la petición solo arma el mensaje.
+     * Las respuestas con error (>= 400) siempre se registran; el resto según el muestreo de la ruta.
+     */
+    private void doFilterAndLogAccess(HttpServletRequest request, CachedBodyHttpServletRequest cachedBodyRequest,
+                                      HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(cachedBodyRequest != null ? cachedBodyRequest : request, response);
+        } finally {
+            int status = response.getStatus();
+            if (status >= 400 || shouldSample(request.getRequestURI())) {
+                StringMapMessage message = new StringMapMessage(8)
+                        .with("method", request.getMethod())
+                        .with("uri", request.getRequestURI())
+                        .with("status", status)
+                        .with("durationMs", (System.nanoTime() - start) / 1_000_000)
+                        .with("remoteAddr", request.getRemoteAddr())
+                        .with("contentType", String.valueOf(request.getContentType()))
+                        .with("contentLength", request.getContentLengthLong());
+                if (cachedBodyRequest != null) {
+                    message.with("body", describeBody(cachedBodyRequest.getCapturedBody()));
+                } else if (request instanceof MultipartHttpServletRequest multipartRequest) {
+                    describeMultipart(multipartRequest, message);
+                }
+                ACCESS_LOG.info(message);
             }
         }
-        // Remove the trailing comma and space
-        if (!headers.isEmpty()) {
-            headers.setLength(headers.length() - 2);
-        }
-        return headers.toString();
     }
 
-    private String getResponseHeadersInfo(HttpServletResponse response) {
-        StringBuilder headers = new StringBuilder();
-        response.getHeaderNames().forEach(headerName -> {
-            if (!headerName.startsWith("Vary")) {
-                headers.append(headerName).append(": ").append(response.getHeader(headerName)).append(", ");
+    private boolean shouldSample(String uri) {
+        double rate = defaultSampleRate;
+        for (Map.Entry<String, Double> route : routeSampleRates.entrySet()) {
+            if (uri.startsWith(route.getKey())) {
+                rate = route.getValue();
+                break;
             }
-        });
-        // Remove the trailing comma and space
-        if (!headers.isEmpty()) {
-            headers.setLength(headers.length() - 2);
         }
-        return headers.toString();
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
     }
 
-    @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        if (isMultipart(request)) {
-            log.info("🟡 Es multipart file");
-
-            // Use MultipartResolver to convert the request
-            StandardServletMultipartResolver resolver = new StandardServletMultipartResolver();
-            MultipartHttpServletRequest multipartRequest = resolver.resolveMultipart(request);
-
-            StringBuilder multipartLog = new StringBuilder();
-
-            // Log parameters
-            multipartRequest.getParameterMap().forEach((key, values) -> {
-
-                if(!key.equals("password")){
-                    multipartLog.append(key).append(": ");
-                    for (String value : values) {
-                        multipartLog.append(value).append(", ");
-                    }
-                    multipartLog.setLength(multipartLog.length() - 2); // Remove the trailing comma and space
-                    multipartLog.append("; ");
-                }
-
-            });
-
-            // Log files
-            multipartRequest.getFileMap().forEach((key, file) ->
-                multipartLog.append("File [").append(key).append("]: ")
-                        .append(file.getOriginalFilename()).append(", size: ")
-                        .append(file.getSize()).append(" bytes; ")
-            );
-
-            log.info("Multipart Request Parameters and Files: {}", multipartLog.toString());
+    private boolean isBodyLogEnabled(HttpServletRequest request) {
+        if (bodyLogPaths.length == 0) {
+            return false;
+        }
+        String uri = request.getRequestURI();
+        for (String path : bodyLogPaths) {
+            if (uri.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            // Continue with the filter chain
-            filterChain.doFilter(multipartRequest, response);
-            return;
+    private byte[] captureBuffer() {
+        byte[] buffer = captureBuffers.get();
+        if (buffer == null || buffer.length != bodyLogMaxBytes) {
+            buffer = new byte[bodyLogMaxBytes];
+            captureBuffers.set(buffer);
         }
+        return buffer;
+    }
 
-        CachedBodyHttpServletRequest cachedBodyHttpServletRequest = new CachedBodyHttpServletRequest(request);
-        long time = System.currentTimeMillis();
+    private String describeBody(String body) {
+        if (body.isEmpty()) {
+            return "";
+        }
         try {
-            filterChain.doFilter(cachedBodyHttpServletRequest, response);
-        } finally {
-            String headersInfo = getHeadersInfo(request);
-            String headerResponse = getResponseHeadersInfo(response);
-            time = System.currentTimeMillis() - time;
-            log.info("Request Method: {} , Request URI: {} ,Request Headers: {} ", request.getMethod(), request.getRequestURI(), headersInfo);
-            log.info("Response Status: {} , Response Headers: {} , Request Time: {}ms", response.getStatus(), headerResponse, time);
+            return getSanitizedRequestBody(body);
+        } catch (IOException e) {
+            // cuerpo truncado por el límite o que no es JSON: no se puede sanitizar, así que nunca se escribe en crudo
+            return "<unparseable body, " + body.getBytes(StandardCharsets.UTF_8).length + " bytes>";
         }
     }
 
+    /**
+     * Campos y archivos de un multipart. Los archivos solo se describen por nombre y tamaño;
+     * los campos pasan por el mismo sanitizador que los cuerpos JSON y solo se escriben
+     * si la ruta está en logging.requestBody.paths.
+     */
+    private void describeMultipart(MultipartHttpServletRequest request, StringMapMessage message) {
+        if (isBodyLogEnabled(request)) {
+            ObjectNode fields = objectMapper.createObjectNode();
+            request.getParameterMap().forEach((key, values) ->
+                    fields.put(key, values.length == 1 ? values[0] : String.join(", ", values)));
+            sanitizeJsonNode(fields);
+            message.with("body", fields.toString());
+        }
+
+        StringBuilder files = new StringBuilder();
+        request.getFileMap().forEach((key, file) -> {
+            if (!files.isEmpty()) {
+                files.append("; ");
+            }
+            files.append(key).append(": ").append(file.getOriginalFilename())
+                    .append(" (").append(file.getSize()).append(" bytes)");
+        });
+        message.with("files", files.toString());
+    }
+
     private boolean isMultipart(HttpServletRequest request) {
         return request.getContentType() != null && request.getContentType().startsWith("multipart/form-data");
     }
@@ -0,0 +1,130 @@
+package com.revoktek.services.config.filter;
+
+import com.revoktek.services.utils.TokenBucketRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Limita por IP las peticiones a /api/login y /api/users/save (token bucket).
+ * <p>
+ * Corre antes que cualquier otro filtro (incluida la cadena de seguridad), por lo que una ráfaga
+ * de credential stuffing se rechaza con 429 sin leer el cuerpo, sin BCrypt y sin base de datos.
+ * El límite por username del login se aplica en {@link JwtAuthenticationFilter} mediante
+ * {@link #allowLoginAttempt(HttpServletRequest, String)}, justo después de leer el username y antes
+ * de autenticar. Se cuenta por (username, IP) para que nadie pueda bloquear a un usuario conocido
+ * enviando contraseñas incorrectas desde otra dirección.
+ * </p>
+ * <p>
+ * Detrás de un proxy inverso la IP real del cliente se toma de X-Forwarded-For, pero solo si la
+ * petición llega desde una dirección listada en rateLimit.trustedProxies. Con
+ * server.forward-headers-strategy=native Tomcat ya resuelve getRemoteAddr() y la lista puede quedar vacía.
+ * </p>
+ */
+@Component
+@Log4j2
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/login";
+    private static final String REGISTER_PATH = "/api/users/save";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final TokenBucketRateLimiter loginIpLimiter;
+    private final TokenBucketRateLimiter loginUsernameLimiter;
+    private final TokenBucketRateLimiter registerIpLimiter;
+    private final Set<String> trustedProxies;
+
+    public RateLimitFilter(@Value("${rateLimit.maxKeys:65536}") int maxKeys,
+                           @Value("${rateLimit.login.ip.capacity:20}") long loginIpCapacity,
+                           @Value("${rateLimit.login.ip.perMinute:20}") long loginIpPerMinute,
+                           @Value("${rateLimit.login.username.capacity:5}") long loginUsernameCapacity,
+                           @Value("${rateLimit.login.username.perMinute:5}") long loginUsernamePerMinute,
+                           @Value("${rateLimit.register.ip.capacity:5}") long registerIpCapacity,
+                           @Value("${rateLimit.register.ip.perMinute:5}") long registerIpPerMinute,
+                           @Value("${rateLimit.trustedProxies:}") String[] trustedProxies) {
+        this.loginIpLimiter = new TokenBucketRateLimiter(loginIpCapacity, loginIpPerMinute, 60_000, maxKeys);
+        this.loginUsernameLimiter = new TokenBucketRateLimiter(loginUsernameCapacity, loginUsernamePerMinute, 60_000, maxKeys);
+        this.registerIpLimiter = new TokenBucketRateLimiter(registerIpCapacity, registerIpPerMinute, 60_000, maxKeys);
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !"POST".equals(request.getMethod()) || !(LOGIN_PATH.equals(uri) || REGISTER_PATH.equals(uri));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        TokenBucketRateLimiter limiter = LOGIN_PATH.equals(request.getRequestURI()) ? loginIpLimiter : registerIpLimiter;
+
+        String clientIp = clientIp(request);
+        if (!limiter.tryAcquire(clientIp)) {
+            log.warn("🔴 Rate limit excedido para {} desde {}", request.getRequestURI(), clientIp);
+            reject(response, limiter);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Consume un intento de login para el username indicado desde la IP del cliente.
+     *
+     * @return false si el par (username, IP) excedió su límite
+     */
+    public boolean allowLoginAttempt(HttpServletRequest request, String username) {
+        return loginUsernameLimiter.tryAcquire(username.toLowerCase() + '|' + clientIp(request));
+    }
+
+    /**
+     * IP del cliente. Si la conexión viene de un proxy de confianza se recorre X-Forwarded-For
+     * de derecha a izquierda y se toma la primera dirección que no sea otro proxy de confianza;
+     * las entradas más a la izquierda las controla el cliente y no se usan.
+     */
+    String clientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (forwardedFor == null || !trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return remoteAddr;
+    }
+
+    /**
+     * Responde 429 para un intento de login rechazado por username.
+     */
+    public void rejectLoginAttempt(HttpServletResponse response) {
+        reject(response, loginUsernameLimiter);
+    }
+
+    private void reject(HttpServletResponse response, TokenBucketRateLimiter limiter) {
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(limiter.retryAfterSeconds()));
+        response.setHeader("error", "Too many requests");
+    }
+}
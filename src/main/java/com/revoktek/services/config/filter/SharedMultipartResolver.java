@@ -0,0 +1,37 @@
+package com.revoktek.services.config.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Resuelve una petición multipart una sola vez por request.
+ * <p>
+ * LoggInterceptor resuelve el multipart y pasa el {@link MultipartHttpServletRequest} hacia abajo en
+ * la cadena; JwtAuthenticationFilter y el DispatcherServlet lo encuentran ya envuelto y lo
+ * reutilizan en lugar de volver a procesar las partes. Usa el MultipartResolver de Spring Boot
+ * (respeta los límites de spring.servlet.multipart.*).
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class SharedMultipartResolver {
+
+    private final MultipartResolver multipartResolver;
+
+    public boolean isMultipart(HttpServletRequest request) {
+        return multipartResolver.isMultipart(request);
+    }
+
+    /**
+     * Devuelve el MultipartHttpServletRequest ya existente en la cadena de wrappers
+     * o lo resuelve si es la primera vez.
+     */
+    public MultipartHttpServletRequest resolve(HttpServletRequest request) {
+        MultipartHttpServletRequest resolved = WebUtils.getNativeRequest(request, MultipartHttpServletRequest.class);
+        return resolved != null ? resolved : multipartResolver.resolveMultipart(request);
+    }
+}
@@ -1,6 +1,7 @@
 package com.revoktek.services.controller;
 
 
+import com.revoktek.services.mapper.DTOUniqueFieldException;
 import com.revoktek.services.rulesException.*;
 import com.revoktek.services.utils.Message;
 import jakarta.validation.ConstraintViolationException;
@@ -35,6 +36,14 @@ public class ExceptionController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new Message(false, e.getMessage(), ""));
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Message> passwordHashingBusyException(PasswordHashingBusyException e) {
+        log.warn("PasswordHashingBusyException: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "2")
+                .body(new Message(false, e.getMessage(), ""));
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Message> IllegalStateException(IllegalStateException ise) {
         log.error("An error occurred while processing the request", ise);
@@ -108,6 +117,13 @@ public class ExceptionController {
         return ResponseEntity.status(HttpStatus.OK).body(new Message(false,ufe.getMessage() ,""));
     }
 
+    @ExceptionHandler(DTOUniqueFieldException.class)
+    public ResponseEntity<?> dtoUniqueFieldException(DTOUniqueFieldException ufe) {
+        List<FieldError> fieldErrors = new ArrayList<>();
+        ufe.getViolations().forEach(violation -> fieldErrors.add(new FieldError(violation.field(), violation.field() + violation.message(), violation.value())));
+        return ResponseEntity.status(HttpStatus.OK).body(new Message(false, "UniqueFieldException", fieldErrors));
+    }
+
     @ExceptionHandler(EnumInvalidArgumentException.class)
     public ResponseEntity<?> enumInvalidArgumentException(EnumInvalidArgumentException e) {
         log.error("Invalid format exception", e);
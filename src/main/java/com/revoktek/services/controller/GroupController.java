@@ -9,15 +9,23 @@ import com.revoktek.services.rulesException.ModelNotFoundException;
 import com.revoktek.services.service.GroupService;
 import com.revoktek.services.utils.Message;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/group")
 public class GroupController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("idGroup", "name", "dayOfWeek", "hour");
     private final GroupService groupService;
 
     /**
@@ -27,12 +35,21 @@ public class GroupController {
      * - Miembros inscritos
      *
      * Endpoint pensado para vista detallada.
+     * Los miembros siempre se paginan con page/size (por defecto 50, máximo 100);
+     * hasMoreMembers indica si existen más páginas.
      */
     @GetMapping("/{groupId}")
     public ResponseEntity<Message> findGroupDetail(
-            @PathVariable Long groupId
+            @PathVariable Long groupId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
     ) throws ModelNotFoundException {
-        GroupDetailDTO data = groupService.findDetailById(groupId);
+        // Nunca se devuelven todos los miembros de golpe: la página tiene un tamaño máximo
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page debe ser >= 0 y size >= 1");
+        }
+        Pageable membersPage = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE));
+        GroupDetailDTO data = groupService.findDetailById(groupId, membersPage);
 
         return ResponseEntity.ok(
                 new Message(
@@ -47,16 +64,41 @@ public class GroupController {
     /**
      * Obtiene el listado preliminar de todos los grupos.
      *
-     * @return ResponseEntity con un Message que contiene la lista de grupos
+     * Paginado y con filtros opcionales (nombre, día y rango de horas) resueltos en SQL.
+     *
+     * @param page       Número de página (base 0).
+     * @param size       Tamaño de la página (máximo 100).
+     * @param sortBy     Campo de orden: idGroup, name, dayOfWeek u hour.
+     * @param descendant True para ordenar descendente.
+     * @param name       (Opcional) Filtro por nombre (contiene).
+     * @param dayOfWeek  (Opcional) Filtro por día de la semana.
+     * @param hourFrom   (Opcional) Hora mínima (HH:mm:ss).
+     * @param hourTo     (Opcional) Hora máxima (HH:mm:ss).
+     * @return ResponseEntity con un Message que contiene la página de grupos
      */
     @GetMapping
-    public ResponseEntity<Message> findAll() {
+    public ResponseEntity<Message> findAll(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "idGroup") String sortBy,
+            @RequestParam(defaultValue = "false") boolean descendant,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String dayOfWeek,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hourFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hourTo
+    ) throws EnumInvalidArgumentException {
+
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("sortBy debe ser uno de " + SORTABLE_FIELDS);
+        }
+        Sort sort = Sort.by(descendant ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy);
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), sort);
 
         return ResponseEntity.ok(
                 new Message(
                         true,
                         "Lista de grupos registrados",
-                        groupService.findAll()
+                        groupService.findAll(name, dayOfWeek, hourFrom, hourTo, pageable)
                 )
         );
     }
@@ -90,11 +132,18 @@ public class GroupController {
     }
 
     /**
-     * Asigna uno o varios instructores a un grupo.
+     * Asigna uno o varios instructores a uno o varios grupos.
+     *
+     * <p>
+     * Cambio de contrato: antes los IDs que no existían o no tenían rol INSTRUCTOR se omitían con
+     * una advertencia en el log y la respuesta era 200. Ahora la petición completa se rechaza con
+     * 400 indicando los IDs inválidos, y no se asigna ningún instructor.
+     * </p>
      *
-     * @param dto DTO con ID del grupo y lista de instructores.
+     * @param dto DTO con ID del grupo (groupId y/o groupIds) y lista de instructores.
      * @return Mensaje de confirmación.
-     * @throws ModelNotFoundException si el grupo o algún usuario no existe.
+     * @throws ModelNotFoundException si algún grupo no existe.
+     * @throws IllegalArgumentException si algún usuario no existe o no tiene rol INSTRUCTOR (400).
      */
     @PostMapping("/assign-instructors")
     public ResponseEntity<Message> assignInstructors(
@@ -104,7 +153,7 @@ public class GroupController {
         groupService.assignInstructors(dto);
 
         return ResponseEntity.ok(
-                new Message(true, "Instructores asignados correctamente al grupo")
+                new Message(true, "Instructores asignados correctamente")
         );
     }
 
@@ -0,0 +1,42 @@
+package com.revoktek.services.controller;
+
+import com.revoktek.services.service.NameSearchIndexService;
+import com.revoktek.services.utils.Message;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/search")
+public class SearchController {
+    private static final int MAX_SUGGESTIONS = 20;
+    private final NameSearchIndexService nameSearchIndexService;
+
+    /**
+     * Sugerencias de búsqueda (typeahead) sobre grupos, cultos y eventos especiales.
+     *
+     * - Se resuelve en memoria, sin consultar la base de datos
+     * - No distingue acentos ni mayúsculas
+     *
+     * Ejemplo:
+     * GET /api/search/typeahead?q=teolo&limit=5
+     *
+     * @param q     Texto capturado por el usuario.
+     * @param limit Número máximo de sugerencias (máximo 20).
+     * @return ResponseEntity con un Message que contiene las sugerencias
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<Message> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(
+                new Message(
+                        true,
+                        "Sugerencias de búsqueda",
+                        nameSearchIndexService.suggest(q, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)))
+                )
+        );
+    }
+}
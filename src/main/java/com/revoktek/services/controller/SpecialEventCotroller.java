@@ -9,15 +9,24 @@ import com.revoktek.services.rulesException.ModelNotFoundException;
 import com.revoktek.services.service.SpecialEventService;
 import com.revoktek.services.utils.Message;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/specialEvent")
 public class SpecialEventCotroller {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("idSpecialEvent", "name", "dayOfWeek", "hour");
     private final SpecialEventService specialEventService;
 
 
@@ -28,12 +37,21 @@ public class SpecialEventCotroller {
      * - Miembros inscritos
      *
      * Endpoint pensado para vista detallada.
+     * Los miembros siempre se paginan con page/size (por defecto 50, máximo 100);
+     * hasMoreMembers indica si existen más páginas.
      */
     @GetMapping("/{specialEventId}")
     public ResponseEntity<Message> findSpecialEventDetail(
-            @PathVariable Long specialEventId
+            @PathVariable Long specialEventId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
     ) throws ModelNotFoundException {
-        SpecialEventsDetailDTO data = specialEventService.findDetailById(specialEventId);
+        // Nunca se devuelven todos los miembros de golpe: la página tiene un tamaño máximo
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page debe ser >= 0 y size >= 1");
+        }
+        Pageable membersPage = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE));
+        SpecialEventsDetailDTO data = specialEventService.findDetailById(specialEventId, membersPage);
 
         return ResponseEntity.ok(
                 new Message(
@@ -47,16 +65,41 @@ public class SpecialEventCotroller {
     /**
      * Obtiene el listado preliminar de todos los Evento Especials.
      *
-     * @return ResponseEntity con un Message que contiene la lista de Evento Especials
+     * Paginado y con filtros opcionales (nombre, día y rango de horas) resueltos en SQL.
+     *
+     * @param page       Número de página (base 0).
+     * @param size       Tamaño de la página (máximo 100).
+     * @param sortBy     Campo de orden: idSpecialEvent, name, dayOfWeek u hour.
+     * @param descendant True para ordenar descendente.
+     * @param name       (Opcional) Filtro por nombre (contiene).
+     * @param dayOfWeek  (Opcional) Filtro por día de la semana.
+     * @param hourFrom   (Opcional) Hora mínima (HH:mm:ss).
+     * @param hourTo     (Opcional) Hora máxima (HH:mm:ss).
+     * @return ResponseEntity con un Message que contiene la página de Evento Especials
      */
     @GetMapping
-    public ResponseEntity<Message> findAll() {
+    public ResponseEntity<Message> findAll(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "idSpecialEvent") String sortBy,
+            @RequestParam(defaultValue = "false") boolean descendant,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String dayOfWeek,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hourFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hourTo
+    ) throws EnumInvalidArgumentException {
+
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("sortBy debe ser uno de " + SORTABLE_FIELDS);
+        }
+        Sort sort = Sort.by(descendant ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy);
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), sort);
 
         return ResponseEntity.ok(
                 new Message(
                         true,
                         "Lista de Eventos Especiales registrados",
-                        specialEventService.findAll()
+                        specialEventService.findAll(name, dayOfWeek, hourFrom, hourTo, pageable)
                 )
         );
     }
@@ -147,17 +190,52 @@ public class SpecialEventCotroller {
      * - El usuario se obtiene desde la sesión
      * - El Evento Especial se recibe como request param
      * - No permite duplicados
+     * - Si el evento está lleno, el usuario queda en lista de espera
      */
     @PostMapping("/join")
     public ResponseEntity<Message> joinWorship(
             @RequestParam Long idSpecialEvent
     ) throws ModelNotFoundException {
-        specialEventService.joinWorship(idSpecialEvent);
+        boolean enrolled = specialEventService.joinWorship(idSpecialEvent);
+        if (!enrolled) {
+            return ResponseEntity.ok(
+                    new Message(true, "El evento esta lleno, quedaste en lista de espera","")
+            );
+        }
         return ResponseEntity.ok(
                 new Message(true, "Inscripcion realizada","")
         );
     }
 
+    /**
+     * 📌 Aparta lugares en el Evento Especial por tiempo limitado.
+     *
+     * - Los cupos quedan reservados hasta la fecha de expiración devuelta
+     * - Debe confirmarse con /confirm antes de que expire
+     */
+    @PostMapping("/hold")
+    public ResponseEntity<Message> holdSlots(
+            @RequestParam Long idSpecialEvent
+    ) throws ModelNotFoundException {
+        LocalDateTime expiresAt = specialEventService.holdSlots(idSpecialEvent);
+        return ResponseEntity.ok(
+                new Message(true, "Lugar apartado", expiresAt)
+        );
+    }
+
+    /**
+     * 📌 Confirma el lugar apartado y lo convierte en inscripción.
+     */
+    @PostMapping("/confirm")
+    public ResponseEntity<Message> confirmHold(
+            @RequestParam Long idSpecialEvent
+    ) throws ModelNotFoundException {
+        specialEventService.confirmHold(idSpecialEvent);
+        return ResponseEntity.ok(
+                new Message(true, "Inscripcion confirmada","")
+        );
+    }
+
     /**
      * Permite al usuario autenticado salirse de un culto como MIEMBRO.
      *
@@ -1,10 +1,13 @@
 package com.revoktek.services.controller;
 
 import com.revoktek.services.model.User;
+import com.revoktek.services.model.dto.users.UserDependentsDTO;
 import com.revoktek.services.model.dto.users.UserSaveDTO;
 import com.revoktek.services.model.enums.Authority;
 import com.revoktek.services.rulesException.DuplicateModelException;
 import com.revoktek.services.rulesException.ModelNotFoundException;
+import com.revoktek.services.service.MemberDirectoryService;
+import com.revoktek.services.service.UserDependentsService;
 import com.revoktek.services.service.UserService;
 import com.revoktek.services.utils.Message;
 import jakarta.validation.Valid;
@@ -21,7 +24,11 @@ import org.springframework.data.domain.Sort;
 @RequestMapping("/api/users")
 public class UsersController {
 
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final UserService userService;
+    private final UserDependentsService userDependentsService;
+    private final MemberDirectoryService memberDirectoryService;
 
     /**
      * Registra un nuevo usuario y actualiza casas asociadas.
@@ -67,6 +74,7 @@ public class UsersController {
      * @param residencyCity   (Opcional) Filtro por ciudad de residencia (contiene).
      * @param age             (Opcional) Filtro por edad.
      * @param enabled         (Opcional) Filtro por estado habilitado.
+     * @param prefix          True para buscar los filtros de texto por prefijo en lugar de "contiene".
      * @return Página de usuarios filtrada y paginada.
      */
     @GetMapping
@@ -81,17 +89,45 @@ public class UsersController {
             @RequestParam(required = false) String maternalSurname,
             @RequestParam(required = false) String residencyCity,
             @RequestParam(required = false) Integer age,
-            @RequestParam(required = false) Boolean enabled) {
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(defaultValue = "false") boolean prefix) {
 
         Sort sort = Sort.by(descendant ? Sort.Direction.DESC : Sort.Direction.ASC, "idUser");
         Pageable pageable = PageRequest.of(page, size, sort);
 
         Page<User> userPage = userService.findUsers(
-                authority, username, names, paternalSurname, maternalSurname, residencyCity, age, enabled, pageable);
+                authority, username, names, paternalSurname, maternalSurname, residencyCity, age, enabled, prefix, pageable);
 
         return ResponseEntity.ok(userPage);
     }
 
+    /**
+     * Directorio de usuarios para administración: vista plana con roles y paginación por cursor.
+     * Solo ADMIN.
+     * <p>
+     * Para la primera página se omite {@code afterId}; para las siguientes se envía el
+     * {@code nextCursor} de la respuesta anterior. {@code nextCursor} es null en la última página.
+     * </p>
+     *
+     * @param afterId   (Opcional) Cursor de la página anterior.
+     * @param size      Tamaño de la página (máximo 100).
+     * @param authority (Opcional) Filtro por rol del usuario.
+     * @param enabled   (Opcional) Filtro por estado habilitado.
+     * @param withCount True para incluir el total de usuarios (consulta adicional).
+     * @return Página del directorio en el campo 'data'.
+     */
+    @GetMapping("/directory")
+    public ResponseEntity<Message> findDirectory(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Authority authority,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(defaultValue = "false") boolean withCount) {
+
+        return ResponseEntity.ok(new Message(true, "Directorio de usuarios",
+                userService.findDirectory(authority, enabled, afterId, size, withCount)));
+    }
+
     /**
      * Cambia el estado habilitado/deshabilitado de un usuario.
      *
@@ -151,6 +187,40 @@ public class UsersController {
         return ResponseEntity.ok(new Message(true, "Usuario actualizado con éxito"));
     }
 
+    /**
+     * Obtiene los dependientes de un usuario.
+     * <p>
+     * Los dependientes se guardan aparte del usuario (tabla user_dependents) y solo se leen aquí;
+     * {@code GET /api/users/{id}} ya no los incluye.
+     * </p>
+     *
+     * @param idUser ID del usuario.
+     * @return Dependientes y número de dependientes del usuario.
+     * @throws ModelNotFoundException Si el usuario no existe.
+     */
+    @GetMapping("/{idUser}/dependents")
+    public ResponseEntity<Message> getDependents(@PathVariable Long idUser) throws ModelNotFoundException {
+        return ResponseEntity.ok(new Message(true, "Dependientes del usuario", userDependentsService.findByUser(idUser)));
+    }
+
+    /**
+     * Actualiza los dependientes de un usuario. Los campos null no se modifican.
+     *
+     * @param idUser ID del usuario.
+     * @param dto    Dependientes y/o número de dependientes. Si incluye idUser debe coincidir con el de la ruta.
+     * @return Mensaje de confirmación.
+     * @throws ModelNotFoundException Si el usuario no existe.
+     */
+    @PutMapping("/{idUser}/dependents")
+    public ResponseEntity<Message> updateDependents(@PathVariable Long idUser, @RequestBody UserDependentsDTO dto)
+            throws ModelNotFoundException {
+        if (dto.getIdUser() != null && !dto.getIdUser().equals(idUser)) {
+            throw new IllegalArgumentException("El idUser del cuerpo no coincide con el de la ruta");
+        }
+        userDependentsService.update(idUser, dto.getDependents(), dto.getNumberDependents());
+        return ResponseEntity.ok(new Message(true, "Dependientes actualizados con éxito"));
+    }
+
     /**
      * Obtiene la lista de todas los usuarios con rol Instructor.
      *
@@ -161,6 +231,27 @@ public class UsersController {
         return ResponseEntity.ok(new Message(true, "Instructores Registados", userService.findAllInstructors()));
     }
 
+    /**
+     * Autocompletado de instructores habilitados por nombre (para asignarlos a grupos).
+     *
+     * - Se resuelve en el directorio en memoria, sin consultar la base de datos
+     * - Cada palabra capturada busca por prefijo en nombres y apellidos, sin distinguir acentos
+     *
+     * Ejemplo:
+     * GET /api/users/instructors/autocomplete?q=jua per&limit=5
+     *
+     * @param q     Texto capturado por el usuario.
+     * @param limit Número máximo de sugerencias (máximo 20).
+     * @return ResponseEntity con un Message que contiene las sugerencias
+     */
+    @GetMapping("/instructors/autocomplete")
+    public ResponseEntity<Message> autocompleteInstructors(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(new Message(true, "Instructores sugeridos",
+                memberDirectoryService.suggestInstructors(q, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)))));
+    }
+
 
 
 
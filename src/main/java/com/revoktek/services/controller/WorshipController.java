@@ -9,15 +9,23 @@ import com.revoktek.services.rulesException.ModelNotFoundException;
 import com.revoktek.services.service.WorshipService;
 import com.revoktek.services.utils.Message;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/worship")
 public class WorshipController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("idWorship", "name", "dayOfWeek", "hour");
     private final WorshipService worshipService;
 
 
@@ -28,12 +36,21 @@ public class WorshipController {
      * - Miembros inscritos
      *
      * Endpoint pensado para vista detallada.
+     * Los miembros siempre se paginan con page/size (por defecto 50, máximo 100);
+     * hasMoreMembers indica si existen más páginas.
      */
     @GetMapping("/{worshipId}")
     public ResponseEntity<Message> findWorshipDetail(
-            @PathVariable Long worshipId
+            @PathVariable Long worshipId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
     ) throws ModelNotFoundException {
-        WorshipDetailDTO data = worshipService.findDetailById(worshipId);
+        // Nunca se devuelven todos los miembros de golpe: la página tiene un tamaño máximo
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page debe ser >= 0 y size >= 1");
+        }
+        Pageable membersPage = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE));
+        WorshipDetailDTO data = worshipService.findDetailById(worshipId, membersPage);
 
         return ResponseEntity.ok(
                 new Message(
@@ -48,16 +65,41 @@ public class WorshipController {
     /**
      * Obtiene el listado preliminar de todos los cultos.
      *
-     * @return ResponseEntity con un Message que contiene la lista de cultos
+     * Paginado y con filtros opcionales (nombre, día y rango de horas) resueltos en SQL.
+     *
+     * @param page       Número de página (base 0).
+     * @param size       Tamaño de la página (máximo 100).
+     * @param sortBy     Campo de orden: idWorship, name, dayOfWeek u hour.
+     * @param descendant True para ordenar descendente.
+     * @param name       (Opcional) Filtro por nombre (contiene).
+     * @param dayOfWeek  (Opcional) Filtro por día de la semana.
+     * @param hourFrom   (Opcional) Hora mínima (HH:mm:ss).
+     * @param hourTo     (Opcional) Hora máxima (HH:mm:ss).
+     * @return ResponseEntity con un Message que contiene la página de cultos
      */
     @GetMapping
-    public ResponseEntity<Message> findAll() {
+    public ResponseEntity<Message> findAll(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "idWorship") String sortBy,
+            @RequestParam(defaultValue = "false") boolean descendant,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String dayOfWeek,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hourFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime hourTo
+    ) throws EnumInvalidArgumentException {
+
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("sortBy debe ser uno de " + SORTABLE_FIELDS);
+        }
+        Sort sort = Sort.by(descendant ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy);
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), sort);
 
         return ResponseEntity.ok(
                 new Message(
                         true,
                         "Lista de cultos registrados",
-                        worshipService.findAll()
+                        worshipService.findAll(name, dayOfWeek, hourFrom, hourTo, pageable)
                 )
         );
     }
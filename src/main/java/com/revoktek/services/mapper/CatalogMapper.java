@@ -0,0 +1,166 @@
+package com.revoktek.services.mapper;
+
+import com.revoktek.services.model.Group;
+import com.revoktek.services.model.SpecialEvent;
+import com.revoktek.services.model.Worship;
+import com.revoktek.services.model.dto.groups.GroupListDTO;
+import com.revoktek.services.model.dto.groups.GroupListView;
+import com.revoktek.services.model.dto.groups.PublicGroupDTO;
+import com.revoktek.services.model.dto.memberGroups.GroupDetailDTO;
+import com.revoktek.services.model.dto.memberGroups.GroupUserDTO;
+import com.revoktek.services.model.dto.memberWorkships.WorshipDetailDTO;
+import com.revoktek.services.model.dto.memberWorkships.WorshipUserDTO;
+import com.revoktek.services.model.dto.specialEventMembers.SpecialEventsDetailDTO;
+import com.revoktek.services.model.dto.specialEventMembers.SpecialEventsUserDTO;
+import com.revoktek.services.model.dto.specialEvents.SpecialEventListView;
+import com.revoktek.services.model.dto.specialEvents.SpecialEventsListDTO;
+import com.revoktek.services.model.dto.workships.WorshipListDTO;
+import com.revoktek.services.model.dto.workships.WorshipListView;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Conversión entidad/proyección → DTO de los catálogos (grupos, cultos y eventos especiales).
+ * <p>
+ * Código escrito a mano y sin reflexión: cada método usa el builder de Lombok del DTO, sin pasar
+ * por ModelMapper. Los builders se nombran por campo, así que agregar o reordenar campos del DTO
+ * no puede intercambiar en silencio dos valores del mismo tipo. Reemplaza los builders que se
+ * repetían en GroupService, WorshipService y SpecialEventService, de modo que un campo nuevo
+ * se agrega en un solo lugar.
+ * </p>
+ */
+public final class CatalogMapper {
+
+    private CatalogMapper() {
+    }
+
+    // ---------- Grupos ----------
+
+    public static GroupListDTO toListDTO(GroupListView group) {
+        return GroupListDTO.builder()
+                .idGroup(group.getIdGroup())
+                .name(group.getName())
+                .address(group.getAddress())
+                .phone(group.getPhone())
+                .dayOfWeek(group.getDayOfWeek().name())
+                .hour(group.getHour())
+                .build();
+    }
+
+    public static GroupListDTO toListDTO(Group group) {
+        return GroupListDTO.builder()
+                .idGroup(group.getIdGroup())
+                .name(group.getName())
+                .address(group.getAddress())
+                .phone(group.getPhone())
+                .dayOfWeek(group.getDayOfWeek().name())
+                .hour(group.getHour())
+                .build();
+    }
+
+    public static PublicGroupDTO toPublicDTO(Group group, List<String> instructors) {
+        return PublicGroupDTO.builder()
+                .idGroup(group.getIdGroup())
+                .name(group.getName())
+                .address(group.getAddress())
+                .phone(group.getPhone())
+                .dayOfWeek(group.getDayOfWeek().name())
+                .hour(group.getHour())
+                .instructors(instructors)
+                .build();
+    }
+
+    public static GroupDetailDTO toDetailDTO(Group group, List<GroupUserDTO> instructors,
+                                             Slice<GroupUserDTO> members) {
+        return GroupDetailDTO.builder()
+                .idGroup(group.getIdGroup())
+                .name(group.getName())
+                .address(group.getAddress())
+                .phone(group.getPhone())
+                .hour(group.getHour())
+                .instructors(instructors)
+                .members(members.getContent())
+                .hasMoreMembers(members.hasNext())
+                .build();
+    }
+
+    // ---------- Cultos ----------
+
+    public static WorshipListDTO toListDTO(WorshipListView worship) {
+        return WorshipListDTO.builder()
+                .idWorship(worship.getIdWorship())
+                .name(worship.getName())
+                .address(worship.getAddress())
+                .phone(worship.getPhone())
+                .dayOfWeek(worship.getDayOfWeek().name())
+                .hour(worship.getHour())
+                .build();
+    }
+
+    public static WorshipListDTO toListDTO(Worship worship) {
+        return WorshipListDTO.builder()
+                .idWorship(worship.getIdWorship())
+                .name(worship.getName())
+                .address(worship.getAddress())
+                .phone(worship.getPhone())
+                .dayOfWeek(worship.getDayOfWeek().name())
+                .hour(worship.getHour())
+                .build();
+    }
+
+    public static WorshipDetailDTO toDetailDTO(Worship worship, Slice<WorshipUserDTO> members) {
+        return WorshipDetailDTO.builder()
+                .idWorhship(worship.getIdWorship())
+                .name(worship.getName())
+                .address(worship.getAddress())
+                .phone(worship.getPhone())
+                .hour(worship.getHour())
+                .members(members.getContent())
+                .hasMoreMembers(members.hasNext())
+                .build();
+    }
+
+    // ---------- Eventos especiales ----------
+
+    public static SpecialEventsListDTO toListDTO(SpecialEventListView specialEvent) {
+        return SpecialEventsListDTO.builder()
+                .idSpecialEvent(specialEvent.getIdSpecialEvent())
+                .name(specialEvent.getName())
+                .address(specialEvent.getAddress())
+                .phone(specialEvent.getPhone())
+                .dayOfWeek(specialEvent.getDayOfWeek().name())
+                .hour(specialEvent.getHour())
+                .numberOfSlots(specialEvent.getNumberOfSlots())
+                .slotsRemaining(specialEvent.getSlotsRemaining())
+                .build();
+    }
+
+    public static SpecialEventsListDTO toListDTO(SpecialEvent specialEvent) {
+        return SpecialEventsListDTO.builder()
+                .idSpecialEvent(specialEvent.getIdSpecialEvent())
+                .name(specialEvent.getName())
+                .address(specialEvent.getAddress())
+                .phone(specialEvent.getPhone())
+                .dayOfWeek(specialEvent.getDayOfWeek().name())
+                .hour(specialEvent.getHour())
+                .numberOfSlots(specialEvent.getNumberOfSlots())
+                .slotsRemaining(specialEvent.getSlotsRemaining())
+                .build();
+    }
+
+    public static SpecialEventsDetailDTO toDetailDTO(SpecialEvent specialEvent, Slice<SpecialEventsUserDTO> members) {
+        return SpecialEventsDetailDTO.builder()
+                .idSpecialEvent(specialEvent.getIdSpecialEvent())
+                .name(specialEvent.getName())
+                .address(specialEvent.getAddress())
+                .phone(specialEvent.getPhone())
+                .hour(specialEvent.getHour())
+                .members(members.getContent())
+                .hasMoreMembers(members.hasNext())
+                .numberOfSlots(specialEvent.getNumberOfSlots())
+                .slotsRemaining(specialEvent.getSlotsRemaining())
+                .build();
+    }
+}
@@ -3,8 +3,6 @@ package com.revoktek.services.mapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.revoktek.services.rulesException.ModelNotFoundException;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.Id;
-import jakarta.persistence.TypedQuery;
 import jakarta.validation.constraints.NotNull;
 import org.modelmapper.ModelMapper;
 import org.springframework.core.MethodParameter;
@@ -22,14 +20,19 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBody
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 public class DTOMapper extends RequestResponseBodyMethodProcessor {
+    private static final String DUPLICATED_IN_REQUEST_MESSAGE = " field value is repeated in the request";
     private final ModelMapper modelMapper;
     private final EntityManager entityManager;
 
@@ -72,34 +75,89 @@ public class DTOMapper extends RequestResponseBodyMethodProcessor {
         return persistedObject;
     }
 
+    /**
+     * Valida los campos {@link DTOUniqueField} del DTO y de sus {@link Model} anidados.
+     * Primero se recolectan todos los valores candidatos por entidad y campo, y después se
+     * consulta una sola vez por entidad y campo con {@code IN (...)}; se reportan todos los conflictos,
+     * incluidos los valores repetidos dentro del mismo payload (con el mismo criterio de {@link #uniqueKey}).
+     */
     private void checkUniqueFields(Object dto, Class<?> modelClass)
-            throws IllegalArgumentException, IllegalAccessException, UniqueFieldException,
-            NoSuchFieldException, SecurityException {
-        for (Field field : dto.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-            final String fieldName = field.getName();
-            if (field.isAnnotationPresent(Model.class)) {
-                Model modelTag = field.getAnnotation(Model.class);
-                Field destinationField = modelClass.getDeclaredField(fieldName);
-                destinationField.setAccessible(true);
-                if (modelTag.isList()) {
-                    for (Object item: (List<?>) field.get(dto)) {
-                        checkUniqueFields(item, modelTag.typeList());
+            throws DTOUniqueFieldException, NoSuchFieldException {
+        Map<Class<?>, Map<String, UniqueCandidates>> candidates = new LinkedHashMap<>();
+        collectUniqueCandidates(dto, modelClass, candidates);
+
+        List<DTOUniqueFieldException.Violation> violations = new ArrayList<>();
+        for (Map.Entry<Class<?>, Map<String, UniqueCandidates>> entity : candidates.entrySet()) {
+            DTOMetadata modelMetadata = DTOMetadata.of(entity.getKey());
+            for (Map.Entry<String, UniqueCandidates> field : entity.getValue().entrySet()) {
+                UniqueCandidates fieldCandidates = field.getValue();
+                Set<Object> existing = new HashSet<>();
+                entityManager.createQuery(modelMetadata.existingValuesQuery(field.getKey()), Object.class)
+                        .setParameter("values", fieldCandidates.values.values())
+                        .getResultList()
+                        .forEach(value -> existing.add(uniqueKey(value)));
+                for (Map.Entry<Object, Object> value : fieldCandidates.values.entrySet()) {
+                    if (existing.contains(value.getKey())) {
+                        violations.add(new DTOUniqueFieldException.Violation(field.getKey(), value.getValue(), fieldCandidates.message));
                     }
-                }else {
-                    checkUniqueFields(field.get(dto), destinationField.getType());
                 }
-            } else if (field.isAnnotationPresent(DTOUniqueField.class)) {
-                DTOUniqueField uniqueTag = field.getAnnotation(DTOUniqueField.class);
-                TypedQuery<Boolean> tq =
-                        entityManager.createQuery(
-                                "SELECT CASE WHEN (COUNT(*) > 0)  THEN true ELSE false END" +
-                                        " FROM " + modelClass.getSimpleName() +
-                                        " WHERE " + fieldName +
-                                        "= ?1", Boolean.class);
-                tq.setParameter(1, field.get(dto));
-                if (tq.getSingleResult())
-                    throw new UniqueFieldException(fieldName, field.get(dto), uniqueTag.message());
+                for (Object duplicate : fieldCandidates.duplicates) {
+                    violations.add(new DTOUniqueFieldException.Violation(field.getKey(), duplicate, DUPLICATED_IN_REQUEST_MESSAGE));
+                }
+            }
+        }
+        if (!violations.isEmpty())
+            throw new DTOUniqueFieldException(violations);
+    }
+
+    private void collectUniqueCandidates(Object dto, Class<?> modelClass,
+                                         Map<Class<?>, Map<String, UniqueCandidates>> candidates)
+            throws NoSuchFieldException {
+        if (dto == null) {
+            return;
+        }
+        DTOMetadata dtoMetadata = DTOMetadata.of(dto.getClass());
+        for (DTOMetadata.ModelField modelField : dtoMetadata.modelFields()) {
+            Model modelTag = modelField.tag();
+            Object value = modelField.accessor().get(dto);
+            if (modelTag.isList()) {
+                for (Object item : (List<?>) value) {
+                    collectUniqueCandidates(item, modelTag.typeList(), candidates);
+                }
+            } else {
+                Class<?> destinationClass = DTOMetadata.of(modelClass).field(modelField.accessor().name()).type();
+                collectUniqueCandidates(value, destinationClass, candidates);
+            }
+        }
+        for (DTOMetadata.UniqueField uniqueField : dtoMetadata.uniqueFields()) {
+            Object value = uniqueField.accessor().get(dto);
+            if (value == null) {
+                continue;
+            }
+            candidates.computeIfAbsent(modelClass, key -> new LinkedHashMap<>())
+                    .computeIfAbsent(uniqueField.accessor().name(), key -> new UniqueCandidates(uniqueField.message()))
+                    .add(value);
+        }
+    }
+
+    // MySQL compara texto sin distinguir mayúsculas, la BD puede devolver el valor con otro formato
+    private static Object uniqueKey(Object value) {
+        return value instanceof String text ? text.toLowerCase(Locale.ROOT) : value;
+    }
+
+    private static final class UniqueCandidates {
+        private final String message;
+        // uniqueKey -> primer valor recibido con esa llave
+        private final Map<Object, Object> values = new LinkedHashMap<>();
+        private final List<Object> duplicates = new ArrayList<>();
+
+        private UniqueCandidates(String message) {
+            this.message = message;
+        }
+
+        private void add(Object value) {
+            if (values.putIfAbsent(uniqueKey(value), value) != null) {
+                duplicates.add(value);
             }
         }
     }
@@ -117,33 +175,18 @@ public class DTOMapper extends RequestResponseBodyMethodProcessor {
     }
 
     private Object getEntityId(Object dto) {
-        for (Field field : dto.getClass().getDeclaredFields()) {
-            if (field.isAnnotationPresent(Id.class)) {
-                try {
-                    field.setAccessible(true);
-                    return field.get(dto);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        }
-        return null;
+        return DTOMetadata.of(dto.getClass()).getId(dto);
     }
 
     private <T> T populateFields(Object dto, T destination) throws ModelNotFoundException {
-        for (Field field : dto.getClass().getDeclaredFields()) {
-            if (!field.isAnnotationPresent(Model.class)) {
-                continue;
-            }
+        DTOMetadata destinationMetadata = DTOMetadata.of(destination.getClass());
+        for (DTOMetadata.ModelField modelField : DTOMetadata.of(dto.getClass()).modelFields()) {
             try {
-                Model modelTag = field.getAnnotation(Model.class);
-                field.setAccessible(true);
-                String modelFieldName = field.getName();
-                Field destinationField = destination.getClass().getDeclaredField(modelFieldName);
-                destinationField.setAccessible(true);
-                Class<?> destinationFieldClass = destinationField.getType();
+                Model modelTag = modelField.tag();
+                DTOMetadata.Accessor destinationField = destinationMetadata.field(modelField.accessor().name());
+                Class<?> destinationFieldClass = destinationField.type();
                 if (modelTag.isList()) {
-                    List<?> list = (List<?>) field.get(dto);
+                    List<?> list = (List<?>) modelField.accessor().get(dto);
                     List<Object> listModel = new ArrayList<>();
                     if (modelTag.hasInsideModel()) {
                         Class<?> modelTagType = modelTag.typeList();
@@ -158,15 +201,10 @@ public class DTOMapper extends RequestResponseBodyMethodProcessor {
                     }
                     destinationField.set(destination, listModel);
                 } else {
-                    Object persistedObject = getPersistenceFromDTO(field.get(dto), destinationFieldClass);
+                    Object persistedObject = getPersistenceFromDTO(modelField.accessor().get(dto), destinationFieldClass);
                     destinationField.set(destination, persistedObject);
-                    for (Field innerField : field.getClass().getDeclaredFields()) {
-                        if (innerField.isAnnotationPresent(Model.class)) {
-                            populateFields(persistedObject, destinationFieldClass);
-                        }
-                    }
                 }
-            } catch (IllegalAccessException | NoSuchFieldException | SecurityException e) {
+            } catch (NoSuchFieldException e) {
                 throw new RuntimeException(e);
             }
         }
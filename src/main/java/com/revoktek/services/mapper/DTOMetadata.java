@@ -0,0 +1,182 @@
+package com.revoktek.services.mapper;
+
+import jakarta.persistence.Id;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metadatos de reflexión de una clase (DTO o entidad) que usa {@link DTOMapper}.
+ * <p>
+ * Se calculan una sola vez por clase: los campos se recorren al construir los metadatos y cada
+ * uno queda con un getter/setter {@link MethodHandle} ya ajustado a {@code (Object)Object}, así que
+ * en cada petición no se vuelve a llamar a {@code getDeclaredFields()}, {@code isAnnotationPresent}
+ * ni {@code setAccessible}. Las consultas JPQL de unicidad también se arman una sola vez por campo.
+ * </p>
+ */
+final class DTOMetadata {
+
+    private static final Map<Class<?>, DTOMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final Map<String, Accessor> accessors;
+    private final Accessor idField;
+    private final List<ModelField> modelFields;
+    private final List<UniqueField> uniqueFields;
+    private final Map<String, String> existingValuesQueries = new ConcurrentHashMap<>();
+
+    private DTOMetadata(Class<?> type) {
+        this.type = type;
+        Map<String, Accessor> byName = new HashMap<>();
+        Accessor id = null;
+        List<ModelField> models = new ArrayList<>();
+        List<UniqueField> uniques = new ArrayList<>();
+
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            Accessor accessor = Accessor.of(field);
+            byName.put(field.getName(), accessor);
+
+            if (id == null && field.isAnnotationPresent(Id.class)) {
+                id = accessor;
+            }
+            Model modelTag = field.getAnnotation(Model.class);
+            if (modelTag != null) {
+                models.add(new ModelField(accessor, modelTag));
+                continue;
+            }
+            DTOUniqueField uniqueTag = field.getAnnotation(DTOUniqueField.class);
+            if (uniqueTag != null) {
+                uniques.add(new UniqueField(accessor, uniqueTag.message()));
+            }
+        }
+
+        this.accessors = Collections.unmodifiableMap(byName);
+        this.idField = id;
+        this.modelFields = List.copyOf(models);
+        this.uniqueFields = List.copyOf(uniques);
+    }
+
+    static DTOMetadata of(Class<?> type) {
+        return CACHE.computeIfAbsent(type, DTOMetadata::new);
+    }
+
+    /**
+     * Valor del campo anotado con {@link Id}, o null si la clase no tiene uno.
+     */
+    Object getId(Object instance) {
+        return idField == null ? null : idField.get(instance);
+    }
+
+    List<ModelField> modelFields() {
+        return modelFields;
+    }
+
+    List<UniqueField> uniqueFields() {
+        return uniqueFields;
+    }
+
+    Accessor field(String name) throws NoSuchFieldException {
+        Accessor accessor = accessors.get(name);
+        if (accessor == null) {
+            throw new NoSuchFieldException(type.getName() + "." + name);
+        }
+        return accessor;
+    }
+
+    /**
+     * JPQL que devuelve, de una lista de valores ({@code :values}), los que ya existen en el campo.
+     */
+    String existingValuesQuery(String fieldName) {
+        return existingValuesQueries.computeIfAbsent(fieldName, name ->
+                "SELECT DISTINCT e." + name +
+                        " FROM " + type.getSimpleName() + " e" +
+                        " WHERE e." + name + " IN :values");
+    }
+
+    /**
+     * Getter/setter de un campo, resueltos una vez con {@link MethodHandles.Lookup#unreflectGetter}.
+     */
+    static final class Accessor {
+        private final String name;
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Accessor(String name, Class<?> type, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        private static Accessor of(Field field) {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                MethodHandle setter;
+                try {
+                    setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                } catch (IllegalAccessException e) {
+                    // campo final de un record: solo lectura
+                    setter = null;
+                }
+                return new Accessor(field.getName(), field.getType(), getter, setter);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("No se puede acceder al campo " + field, e);
+            }
+        }
+
+        String name() {
+            return name;
+        }
+
+        Class<?> type() {
+            return type;
+        }
+
+        Object get(Object instance) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void set(Object instance, Object value) {
+            if (setter == null) {
+                throw new IllegalStateException("El campo " + name + " es de solo lectura");
+            }
+            try {
+                setter.invokeExact(instance, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    record ModelField(Accessor accessor, Model tag) {
+    }
+
+    record UniqueField(Accessor accessor, String message) {
+    }
+}
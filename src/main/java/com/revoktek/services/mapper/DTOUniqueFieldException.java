@@ -0,0 +1,26 @@
+package com.revoktek.services.mapper;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class DTOUniqueFieldException extends Exception {
+    private final List<Violation> violations;
+
+    public DTOUniqueFieldException(String field, Object value, String message) {
+        this(List.of(new Violation(field, value, message)));
+    }
+
+    public DTOUniqueFieldException(List<Violation> violations) {
+        super(violations.stream()
+                .map(violation -> violation.field() + violation.message())
+                .collect(Collectors.joining("; ")));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<Violation> getViolations() {
+        return violations;
+    }
+
+    public record Violation(String field, Object value, String message) {
+    }
+}
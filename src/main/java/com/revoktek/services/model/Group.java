@@ -1,6 +1,7 @@
 package com.revoktek.services.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.revoktek.services.service.NameSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,6 +18,7 @@ import java.util.List;
 @Table(name = "church_groups")
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(NameSearchIndexListener.class)
 public class Group {
 
     @Id
@@ -1,6 +1,7 @@
 package com.revoktek.services.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.revoktek.services.service.NameSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,6 +18,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(NameSearchIndexListener.class)
 public class SpecialEvent {
 
     @Id
@@ -40,4 +42,12 @@ public class SpecialEvent {
     @JsonIgnore
     private List<SpecialEventMember> members = new ArrayList<>();
 
+    @OneToMany(mappedBy = "specialEvent", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
+    private List<SpecialEventWaitlist> waitlist = new ArrayList<>();
+
+    @OneToMany(mappedBy = "specialEvent", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
+    private List<SpecialEventHold> holds = new ArrayList<>();
+
 }
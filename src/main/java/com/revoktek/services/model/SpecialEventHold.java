@@ -0,0 +1,57 @@
+package com.revoktek.services.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "special_event_holds",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"special_event_id", "user_id"})
+        },
+        indexes = {
+                @Index(name = "idx_special_event_holds_expires_at", columnList = "expires_at")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpecialEventHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "special_event_id", nullable = false)
+    @JsonIgnore
+    private SpecialEvent specialEvent;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Cupos descontados al apartar; son los que se restauran si el apartado expira
+    @Column(nullable = false)
+    private Integer slots;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Veces que se ha renovado la vigencia; tiene un máximo para que un apartado no retenga cupos indefinidamente
+    @Column(nullable = false)
+    private Integer renewals;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -40,6 +40,10 @@ public class SpecialEventMember {
     @Column(nullable = false)
     private GroupRole role;
 
+    // Cupos descontados al inscribirse (usuario + dependientes en ese momento); son los que se
+    // restauran al salir. Null en inscripciones anteriores a esta columna
+    private Integer slots;
+
     private LocalDateTime joinedAt;
 
     @PrePersist
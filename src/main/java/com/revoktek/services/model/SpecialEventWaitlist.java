@@ -0,0 +1,44 @@
+package com.revoktek.services.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "special_event_waitlist",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"special_event_id", "user_id"})
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpecialEventWaitlist {
+    // El orden FIFO de la lista se toma de este id (IDENTITY es monotónico)
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "special_event_id", nullable = false)
+    @JsonIgnore
+    private SpecialEvent specialEvent;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    private LocalDateTime requestedAt;
+
+    @PrePersist
+    void onCreate() {
+        requestedAt = LocalDateTime.now();
+    }
+}
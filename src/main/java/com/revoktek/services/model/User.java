@@ -3,11 +3,14 @@ package com.revoktek.services.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.revoktek.services.model.enums.Authority;
+import com.revoktek.services.service.MemberDirectoryListener;
+import com.revoktek.services.service.UserSearchKeysListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,10 +23,20 @@ import java.util.stream.Collectors;
 
 @Entity
 @Data
-@Table(name = "users")
+@Table(
+        name = "users",
+        indexes = {
+                @Index(name = "idx_users_search_username", columnList = "search_username"),
+                @Index(name = "idx_users_search_names", columnList = "search_names"),
+                @Index(name = "idx_users_search_paternal_surname", columnList = "search_paternal_surname"),
+                @Index(name = "idx_users_search_maternal_surname", columnList = "search_maternal_surname"),
+                @Index(name = "idx_users_search_residency_city", columnList = "search_residency_city")
+        }
+)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners({UserSearchKeysListener.class, MemberDirectoryListener.class})
 public class User implements UserDetails {
 
     //Datos base de Plantilla
@@ -35,6 +48,8 @@ public class User implements UserDetails {
     private LocalDateTime dateRegister;
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_authorities", joinColumns = @JoinColumn(name = "user_id"))
+    // en listados paginados los roles se cargan por lotes, no con una consulta por usuario
+    @BatchSize(size = 100)
     @Enumerated(EnumType.STRING)
     @Column(name = "authority")
     private List<Authority> authorities = new ArrayList<>();
@@ -49,9 +64,24 @@ public class User implements UserDetails {
     private String maternalSurname;
     private String residencyCity;
     private Integer numberDependents;
-    @Lob
-    @Column(columnDefinition = "LONGTEXT")
-    private String dependents;
+    // El texto de dependientes vive en user_dependents (UserDependents) para no cargarlo con el usuario
+
+    //Llaves de búsqueda normalizadas (UserSearchKeysListener), con índice
+    @JsonIgnore
+    @Column(name = "search_username")
+    private String searchUsername;
+    @JsonIgnore
+    @Column(name = "search_names")
+    private String searchNames;
+    @JsonIgnore
+    @Column(name = "search_paternal_surname")
+    private String searchPaternalSurname;
+    @JsonIgnore
+    @Column(name = "search_maternal_surname")
+    private String searchMaternalSurname;
+    @JsonIgnore
+    @Column(name = "search_residency_city")
+    private String searchResidencyCity;
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
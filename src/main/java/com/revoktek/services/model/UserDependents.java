@@ -0,0 +1,38 @@
+package com.revoktek.services.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Información de dependientes de un usuario, guardada aparte de la tabla users.
+ * <p>
+ * El texto puede ser grande; al estar en su propia tabla no viaja con cada carga del usuario
+ * (login, sesión, detalle de miembros). Solo se lee desde /api/users/{idUser}/dependents.
+ * </p>
+ */
+@Entity
+@Table(name = "user_dependents")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDependents {
+
+    // Mismo valor que users.id_user
+    @Id
+    private Long userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @JsonIgnore
+    private User user;
+
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    private String dependents;
+}
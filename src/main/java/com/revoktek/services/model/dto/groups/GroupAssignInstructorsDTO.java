@@ -9,6 +9,8 @@ import java.util.List;
 @Setter
 public class GroupAssignInstructorsDTO {
     private Long groupId;
+    // Opcional: asignar los mismos instructores a varios grupos en una sola llamada
+    private List<Long> groupIds;
     private List<Long> instructorIds;
 }
 
@@ -0,0 +1,16 @@
+package com.revoktek.services.model.dto.groups;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Proyección de interfaz del listado paginado de grupos (solo columnas de church_groups).
+ */
+public interface GroupListView {
+    Long getIdGroup();
+    String getName();
+    String getAddress();
+    String getPhone();
+    DayOfWeek getDayOfWeek();
+    LocalTime getHour();
+}
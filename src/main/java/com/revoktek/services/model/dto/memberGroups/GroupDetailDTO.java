@@ -21,5 +21,7 @@ public class GroupDetailDTO {
 
     private List<GroupUserDTO> instructors;
     private List<GroupUserDTO> members;
+    // true si existen más miembros después de esta página
+    private boolean hasMoreMembers;
 }
 
@@ -20,4 +20,6 @@ public class WorshipDetailDTO {
     private String phone;
     private LocalTime hour;
     private List<WorshipUserDTO> members;
+    // true si existen más miembros después de esta página
+    private boolean hasMoreMembers;
 }
@@ -0,0 +1,16 @@
+package com.revoktek.services.model.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class MemberSuggestionDTO {
+
+    private Long idUser;
+    private String fullName;
+}
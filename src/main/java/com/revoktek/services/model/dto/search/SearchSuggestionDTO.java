@@ -0,0 +1,18 @@
+package com.revoktek.services.model.dto.search;
+
+import com.revoktek.services.model.enums.Catalog;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class SearchSuggestionDTO {
+
+    private Catalog catalog;
+    private Long id;
+    private String name;
+}
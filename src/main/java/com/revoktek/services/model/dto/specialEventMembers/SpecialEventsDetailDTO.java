@@ -20,6 +20,8 @@ public class SpecialEventsDetailDTO {
     private String phone;
     private LocalTime hour;
     private List<SpecialEventsUserDTO> members;
+    // true si existen más miembros después de esta página
+    private boolean hasMoreMembers;
     private Integer numberOfSlots;
     private Integer slotsRemaining;
 }
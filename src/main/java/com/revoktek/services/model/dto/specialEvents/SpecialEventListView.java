@@ -0,0 +1,18 @@
+package com.revoktek.services.model.dto.specialEvents;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Proyección de interfaz del listado paginado de eventos especiales, incluye el estado de cupos.
+ */
+public interface SpecialEventListView {
+    Long getIdSpecialEvent();
+    String getName();
+    String getAddress();
+    String getPhone();
+    DayOfWeek getDayOfWeek();
+    LocalTime getHour();
+    Integer getNumberOfSlots();
+    Integer getSlotsRemaining();
+}
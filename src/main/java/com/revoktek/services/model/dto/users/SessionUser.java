@@ -0,0 +1,23 @@
+package com.revoktek.services.model.dto.users;
+
+import com.revoktek.services.model.User;
+import com.revoktek.services.model.enums.Authority;
+
+import java.util.List;
+
+/**
+ * Datos del usuario autenticado que se comparten entre peticiones (UtilService.sessionUser()).
+ * Es inmutable: a diferencia de la entidad User, puede leerse desde varios hilos a la vez.
+ */
+public record SessionUser(Long idUser, String username, List<Authority> authorities,
+                          Integer numberDependents, boolean enabled) {
+
+    public static SessionUser of(User user) {
+        return new SessionUser(user.getIdUser(), user.getUsername(), List.copyOf(user.getSimpleAuthorities()),
+                user.getNumberDependents(), user.isEnabled());
+    }
+
+    public boolean hasAuthority(Authority authority) {
+        return authorities.contains(authority);
+    }
+}
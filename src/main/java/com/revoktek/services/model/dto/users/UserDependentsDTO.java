@@ -0,0 +1,19 @@
+package com.revoktek.services.model.dto.users;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDependentsDTO {
+
+    private Long idUser;
+    private String dependents;
+    private Integer numberDependents;
+}
@@ -0,0 +1,24 @@
+package com.revoktek.services.model.dto.users;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class UserDirectoryDTO {
+
+    private Long idUser;
+    private String username;
+    private String names;
+    private String paternalSurname;
+    private String maternalSurname;
+    private String residencyCity;
+    private Boolean enabled;
+    private List<String> authorities;
+}
@@ -0,0 +1,24 @@
+package com.revoktek.services.model.dto.users;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Página del directorio de usuarios con paginación por cursor (keyset).
+ * nextCursor es el idUser a enviar como afterId para la siguiente página (null si no hay más);
+ * total solo se calcula cuando se solicita.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class UserDirectoryPageDTO {
+
+    private List<UserDirectoryDTO> content;
+    private Long nextCursor;
+    private Long total;
+}
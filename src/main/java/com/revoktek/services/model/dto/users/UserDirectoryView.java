@@ -0,0 +1,16 @@
+package com.revoktek.services.model.dto.users;
+
+/**
+ * Proyección plana de la consulta nativa del directorio de usuarios.
+ * Los roles llegan agregados en SQL (GROUP_CONCAT) como texto separado por comas.
+ */
+public interface UserDirectoryView {
+    Long getIdUser();
+    String getUsername();
+    String getNames();
+    String getPaternalSurname();
+    String getMaternalSurname();
+    String getResidencyCity();
+    Boolean getEnabled();
+    String getAuthorities();
+}
@@ -0,0 +1,16 @@
+package com.revoktek.services.model.dto.workships;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Proyección de interfaz usada por el listado paginado de cultos.
+ */
+public interface WorshipListView {
+    Long getIdWorship();
+    String getName();
+    String getAddress();
+    String getPhone();
+    DayOfWeek getDayOfWeek();
+    LocalTime getHour();
+}
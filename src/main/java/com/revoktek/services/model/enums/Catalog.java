@@ -0,0 +1,7 @@
+package com.revoktek.services.model.enums;
+
+public enum Catalog {
+    GROUPS,
+    WORSHIPS,
+    SPECIAL_EVENTS
+}
@@ -1,9 +1,15 @@
 package com.revoktek.services.repository;
 
 import com.revoktek.services.model.GroupMember;
+import com.revoktek.services.model.dto.memberGroups.GroupUserDTO;
 import com.revoktek.services.model.enums.GroupRole;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +17,45 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, Long>
 
     List<GroupMember> findByUserIdUserAndRole(Long userId, GroupRole role);
 
+    /**
+     * Verifica la membresía con una consulta indexada por (group_id, user_id),
+     * sin cargar la colección de miembros del grupo.
+     */
+    boolean existsByGroupIdGroupAndUserIdUser(Long idGroup, Long idUser);
+
+    /**
+     * Pares (idGroup, idUser) que ya tienen relación, para varios grupos y usuarios en una sola consulta.
+     */
+    @Query("SELECT m.group.idGroup, m.user.idUser FROM GroupMember m " +
+            "WHERE m.group.idGroup IN :groupIds AND m.user.idUser IN :userIds")
+    List<Object[]> findExistingPairs(@Param("groupIds") Collection<Long> groupIds,
+                                     @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Proyección de los usuarios de un grupo con un rol dado en una sola consulta
+     * (JOIN a users), sin hidratar entidades User ni su colección de authorities.
+     * Como Slice se lee una fila extra para saber si hay más, sin un COUNT.
+     */
+    @Query("SELECT new com.revoktek.services.model.dto.memberGroups.GroupUserDTO(" +
+            "u.age, u.names, u.phone, u.paternalSurname, u.maternalSurname, u.residencyCity) " +
+            "FROM GroupMember m JOIN m.user u " +
+            "WHERE m.group.idGroup = :idGroup AND m.role = :role " +
+            "ORDER BY m.id")
+    Slice<GroupUserDTO> findUsersByGroupAndRole(@Param("idGroup") Long idGroup,
+                                               @Param("role") GroupRole role,
+                                               Pageable pageable);
+
+    /**
+     * Filas (idGroup, names, paternalSurname, maternalSurname) de los usuarios con un rol dado
+     * en varios grupos, en una sola consulta (JOIN a users).
+     */
+    @Query("SELECT m.group.idGroup, u.names, u.paternalSurname, u.maternalSurname " +
+            "FROM GroupMember m JOIN m.user u " +
+            "WHERE m.group.idGroup IN :groupIds AND m.role = :role " +
+            "ORDER BY m.id")
+    List<Object[]> findUserNamesByGroupsAndRole(@Param("groupIds") Collection<Long> groupIds,
+                                                @Param("role") GroupRole role);
+
     Optional<GroupMember> findByGroupIdGroupAndUserIdUserAndRole(
             Long idGroup,
             Long idUser,
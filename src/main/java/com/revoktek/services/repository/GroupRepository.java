@@ -1,15 +1,48 @@
 package com.revoktek.services.repository;
 
 import com.revoktek.services.model.Group;
+import com.revoktek.services.model.dto.groups.GroupListView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group,Long> {
 
-    List<Group> findByNameContainingIgnoreCase(String name);
+    /**
+     * ID y nombre de todos los grupos; alimenta la carga inicial del índice de búsqueda.
+     */
+    @Query("SELECT g.idGroup, g.name FROM Group g")
+    List<Object[]> findAllNames();
+
+    /**
+     * De los IDs recibidos, los que corresponden a grupos existentes.
+     */
+    @Query("SELECT g.idGroup FROM Group g WHERE g.idGroup IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Catálogo paginado de grupos con filtros opcionales resueltos en SQL.
+     * Los filtros nulos se ignoran.
+     */
+    @Query("SELECT g.idGroup AS idGroup, g.name AS name, g.address AS address, g.phone AS phone, " +
+            "g.dayOfWeek AS dayOfWeek, g.hour AS hour FROM Group g " +
+            "WHERE (:name IS NULL OR LOWER(g.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+            "AND (:dayOfWeek IS NULL OR g.dayOfWeek = :dayOfWeek) " +
+            "AND (:hourFrom IS NULL OR g.hour >= :hourFrom) " +
+            "AND (:hourTo IS NULL OR g.hour <= :hourTo)")
+    Page<GroupListView> findCatalog(@Param("name") String name,
+                                    @Param("dayOfWeek") DayOfWeek dayOfWeek,
+                                    @Param("hourFrom") LocalTime hourFrom,
+                                    @Param("hourTo") LocalTime hourTo,
+                                    Pageable pageable);
 
 }
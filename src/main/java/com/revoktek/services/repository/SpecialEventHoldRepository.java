@@ -0,0 +1,43 @@
+package com.revoktek.services.repository;
+
+import com.revoktek.services.model.SpecialEventHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SpecialEventHoldRepository extends JpaRepository<SpecialEventHold,Long> {
+
+    /**
+     * ID del apartado de un usuario, con una lectura sin bloqueo.
+     * En el caso normal el apartado no existe, y una lectura con bloqueo sobre una llave única
+     * inexistente toma gap locks en InnoDB que chocan con el INSERT de otros apartados del evento.
+     */
+    @Query("SELECT h.id FROM SpecialEventHold h " +
+            "WHERE h.specialEvent.idSpecialEvent = :idSpecialEvent AND h.user.idUser = :idUser")
+    Optional<Long> findIdBySpecialEventAndUser(@Param("idSpecialEvent") Long idSpecialEvent,
+                                               @Param("idUser") Long idUser);
+
+    /**
+     * Obtiene y bloquea un apartado existente (bloqueo de registro por llave primaria) para que
+     * la confirmación y el barrido de expirados no lo procesen al mismo tiempo.
+     * Vacío si otra transacción lo consumió entre la lectura del ID y el bloqueo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM SpecialEventHold h WHERE h.id = :id")
+    Optional<SpecialEventHold> findLockedById(@Param("id") Long id);
+
+    /**
+     * Obtiene y bloquea un lote de apartados vencidos (usa el índice sobre expires_at).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<SpecialEventHold> findByExpiresAtBeforeOrderByIdAsc(LocalDateTime now, Pageable pageable);
+}
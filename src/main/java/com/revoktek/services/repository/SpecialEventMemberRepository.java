@@ -2,8 +2,13 @@ package com.revoktek.services.repository;
 
 import com.revoktek.services.model.SpecialEventMember;
 import com.revoktek.services.model.WorshipMember;
+import com.revoktek.services.model.dto.specialEventMembers.SpecialEventsUserDTO;
 import com.revoktek.services.model.enums.GroupRole;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,6 +19,26 @@ public interface SpecialEventMemberRepository extends JpaRepository<SpecialEvent
 
     List<SpecialEventMember> findByUserIdUserAndRole(Long userId, GroupRole role);
 
+    /**
+     * Verifica la inscripción con una consulta indexada por (special_event_id, user_id),
+     * sin cargar la colección de miembros del evento.
+     */
+    boolean existsBySpecialEventIdSpecialEventAndUserIdUser(Long idSpecialEvent, Long idUser);
+
+    /**
+     * Proyección de los usuarios de un evento con un rol dado en una sola consulta
+     * (JOIN a users), sin hidratar entidades User ni su colección de authorities.
+     * Como Slice se lee una fila extra para saber si hay más, sin un COUNT.
+     */
+    @Query("SELECT new com.revoktek.services.model.dto.specialEventMembers.SpecialEventsUserDTO(" +
+            "u.age, u.names, u.phone, u.paternalSurname, u.maternalSurname, u.residencyCity) " +
+            "FROM SpecialEventMember m JOIN m.user u " +
+            "WHERE m.specialEvent.idSpecialEvent = :idSpecialEvent AND m.role = :role " +
+            "ORDER BY m.id")
+    Slice<SpecialEventsUserDTO> findUsersBySpecialEventAndRole(@Param("idSpecialEvent") Long idSpecialEvent,
+                                                              @Param("role") GroupRole role,
+                                                              Pageable pageable);
+
     Optional<SpecialEventMember> findBySpecialEventIdSpecialEventAndUserIdUserAndRole(
             Long idWorship,
             Long idUser,
@@ -1,9 +1,65 @@
 package com.revoktek.services.repository;
 
 import com.revoktek.services.model.SpecialEvent;
+import com.revoktek.services.model.dto.specialEvents.SpecialEventListView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
 @Repository
 public interface SpecialEventRepository extends JpaRepository<SpecialEvent,Long> {
+
+    /**
+     * ID y nombre de todos los eventos especiales; alimenta la carga inicial del índice de búsqueda.
+     */
+    @Query("SELECT s.idSpecialEvent, s.name FROM SpecialEvent s")
+    List<Object[]> findAllNames();
+
+    /**
+     * Catálogo paginado de eventos especiales con filtros opcionales resueltos en SQL.
+     * Los filtros nulos se ignoran.
+     */
+    @Query("SELECT s.idSpecialEvent AS idSpecialEvent, s.name AS name, s.address AS address, s.phone AS phone, " +
+            "s.dayOfWeek AS dayOfWeek, s.hour AS hour, s.numberOfSlots AS numberOfSlots, " +
+            "s.slotsRemaining AS slotsRemaining FROM SpecialEvent s " +
+            "WHERE (:name IS NULL OR LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+            "AND (:dayOfWeek IS NULL OR s.dayOfWeek = :dayOfWeek) " +
+            "AND (:hourFrom IS NULL OR s.hour >= :hourFrom) " +
+            "AND (:hourTo IS NULL OR s.hour <= :hourTo)")
+    Page<SpecialEventListView> findCatalog(@Param("name") String name,
+                                           @Param("dayOfWeek") DayOfWeek dayOfWeek,
+                                           @Param("hourFrom") LocalTime hourFrom,
+                                           @Param("hourTo") LocalTime hourTo,
+                                           Pageable pageable);
+
+    /**
+     * Descuenta cupos de forma atómica con un único UPDATE condicional.
+     * Solo afecta la fila si aún quedan cupos suficientes, por lo que nunca se sobrevende.
+     *
+     * @return 1 si se reservaron los cupos, 0 si el evento ya no tiene cupo suficiente
+     */
+    @Modifying
+    @Query("UPDATE SpecialEvent s SET s.slotsRemaining = s.slotsRemaining - :slots " +
+            "WHERE s.idSpecialEvent = :idSpecialEvent AND s.slotsRemaining >= :slots")
+    int reserveSlots(@Param("idSpecialEvent") Long idSpecialEvent, @Param("slots") int slots);
+
+    /**
+     * Restaura cupos de forma atómica sin exceder el total de cupos del evento.
+     *
+     * @return número de filas afectadas
+     */
+    @Modifying
+    @Query("UPDATE SpecialEvent s SET s.slotsRemaining = " +
+            "CASE WHEN s.slotsRemaining + :slots > s.numberOfSlots THEN s.numberOfSlots " +
+            "ELSE s.slotsRemaining + :slots END " +
+            "WHERE s.idSpecialEvent = :idSpecialEvent")
+    int releaseSlots(@Param("idSpecialEvent") Long idSpecialEvent, @Param("slots") int slots);
 }
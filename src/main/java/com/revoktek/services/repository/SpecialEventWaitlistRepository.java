@@ -0,0 +1,26 @@
+package com.revoktek.services.repository;
+
+import com.revoktek.services.model.SpecialEventWaitlist;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SpecialEventWaitlistRepository extends JpaRepository<SpecialEventWaitlist,Long> {
+
+    boolean existsBySpecialEventIdSpecialEvent(Long idSpecialEvent);
+
+    boolean existsBySpecialEventIdSpecialEventAndUserIdUser(Long idSpecialEvent, Long idUser);
+
+    Optional<SpecialEventWaitlist> findBySpecialEventIdSpecialEventAndUserIdUser(Long idSpecialEvent, Long idUser);
+
+    /**
+     * Obtiene y bloquea la cabeza de la lista de espera (FIFO) de un evento.
+     * El bloqueo evita que dos salidas concurrentes promuevan al mismo usuario.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SpecialEventWaitlist> findFirstBySpecialEventIdSpecialEventOrderByIdAsc(Long idSpecialEvent);
+}
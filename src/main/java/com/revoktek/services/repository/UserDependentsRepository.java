@@ -0,0 +1,9 @@
+package com.revoktek.services.repository;
+
+import com.revoktek.services.model.UserDependents;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserDependentsRepository extends JpaRepository<UserDependents, Long> {
+}
@@ -2,11 +2,15 @@ package com.revoktek.services.repository;
 
 
 import com.revoktek.services.model.User;
+import com.revoktek.services.model.dto.users.UserDirectoryView;
 import com.revoktek.services.model.enums.Authority;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,4 +27,58 @@ public interface UserRepository extends JpaRepository<User,Long>, JpaSpecificati
      * @return Lista de usuarios con dicho rol.
      */
     List<User> findByAuthoritiesContaining(Authority authority);
+
+    /**
+     * ID, nombres, apellidos y estado de todos los usuarios; alimenta la carga del directorio en memoria.
+     */
+    @Query("SELECT u.idUser, u.names, u.paternalSurname, u.maternalSurname, u.enabled FROM User u")
+    List<Object[]> findAllDirectoryRows();
+
+    /**
+     * Pares (idUser, rol) de todos los usuarios, en una sola consulta.
+     */
+    @Query("SELECT u.idUser, a FROM User u JOIN u.authorities a")
+    List<Object[]> findAllAuthorityRows();
+
+    /**
+     * De los IDs recibidos, los que corresponden a usuarios con el rol indicado.
+     */
+    @Query("SELECT u.idUser FROM User u WHERE u.idUser IN :ids AND :authority MEMBER OF u.authorities")
+    List<Long> findIdsWithAuthority(@Param("ids") Collection<Long> ids, @Param("authority") Authority authority);
+
+    /**
+     * Directorio de usuarios paginado por cursor (id descendente), en una sola consulta.
+     * Los roles se agregan en SQL y el filtro de rol es un EXISTS, así que no hay filas duplicadas
+     * ni una consulta extra por usuario para la colección de autoridades.
+     *
+     * @param afterId   cursor: último idUser de la página anterior (null para la primera)
+     * @param authority (Opcional) nombre del rol
+     * @param enabled   (Opcional) estado habilitado
+     * @param limit     filas a devolver
+     */
+    @Query(value = "SELECT u.id_user AS idUser, u.username AS username, u.names AS names, " +
+            "u.paternal_surname AS paternalSurname, u.maternal_surname AS maternalSurname, " +
+            "u.residency_city AS residencyCity, u.enabled AS enabled, " +
+            "(SELECT GROUP_CONCAT(a.authority ORDER BY a.authority) FROM user_authorities a " +
+            "WHERE a.user_id = u.id_user) AS authorities " +
+            "FROM users u " +
+            "WHERE (:afterId IS NULL OR u.id_user < :afterId) " +
+            "AND (:authority IS NULL OR EXISTS (SELECT 1 FROM user_authorities f " +
+            "WHERE f.user_id = u.id_user AND f.authority = :authority)) " +
+            "AND (:enabled IS NULL OR u.enabled = :enabled) " +
+            "ORDER BY u.id_user DESC LIMIT :limit", nativeQuery = true)
+    List<UserDirectoryView> findDirectory(@Param("afterId") Long afterId,
+                                          @Param("authority") String authority,
+                                          @Param("enabled") Boolean enabled,
+                                          @Param("limit") int limit);
+
+    /**
+     * Total de usuarios del directorio con los mismos filtros que {@link #findDirectory}.
+     */
+    @Query(value = "SELECT COUNT(*) FROM users u " +
+            "WHERE (:authority IS NULL OR EXISTS (SELECT 1 FROM user_authorities f " +
+            "WHERE f.user_id = u.id_user AND f.authority = :authority)) " +
+            "AND (:enabled IS NULL OR u.enabled = :enabled)", nativeQuery = true)
+    long countDirectory(@Param("authority") String authority,
+                        @Param("enabled") Boolean enabled);
 }
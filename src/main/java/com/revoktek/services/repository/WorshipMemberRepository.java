@@ -2,8 +2,13 @@ package com.revoktek.services.repository;
 
 import com.revoktek.services.model.GroupMember;
 import com.revoktek.services.model.WorshipMember;
+import com.revoktek.services.model.dto.memberWorkships.WorshipUserDTO;
 import com.revoktek.services.model.enums.GroupRole;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,6 +18,26 @@ import java.util.Optional;
 public interface WorshipMemberRepository extends JpaRepository<WorshipMember,Long> {
     List<WorshipMember> findByUserIdUserAndRole(Long userId, GroupRole role);
 
+    /**
+     * Verifica la membresía con una consulta indexada por (worship_id, user_id),
+     * sin cargar la colección de miembros del culto.
+     */
+    boolean existsByWorshipIdWorshipAndUserIdUser(Long idWorship, Long idUser);
+
+    /**
+     * Proyección de los usuarios de un culto con un rol dado en una sola consulta
+     * (JOIN a users), sin hidratar entidades User ni su colección de authorities.
+     * Como Slice se lee una fila extra para saber si hay más, sin un COUNT.
+     */
+    @Query("SELECT new com.revoktek.services.model.dto.memberWorkships.WorshipUserDTO(" +
+            "u.age, u.names, u.phone, u.paternalSurname, u.maternalSurname, u.residencyCity) " +
+            "FROM WorshipMember m JOIN m.user u " +
+            "WHERE m.worship.idWorship = :idWorship AND m.role = :role " +
+            "ORDER BY m.id")
+    Slice<WorshipUserDTO> findUsersByWorshipAndRole(@Param("idWorship") Long idWorship,
+                                                   @Param("role") GroupRole role,
+                                                   Pageable pageable);
+
     Optional<WorshipMember> findByWorshipIdWorshipAndUserIdUserAndRole(
             Long idWorship,
             Long idUser,
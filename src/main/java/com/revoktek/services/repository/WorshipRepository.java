@@ -1,7 +1,38 @@
 package com.revoktek.services.repository;
 
 import com.revoktek.services.model.Worship;
+import com.revoktek.services.model.dto.workships.WorshipListView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
 
 public interface WorshipRepository extends JpaRepository<Worship,Long> {
+
+    /**
+     * ID y nombre de todos los cultos; alimenta la carga inicial del índice de búsqueda.
+     */
+    @Query("SELECT w.idWorship, w.name FROM Worship w")
+    List<Object[]> findAllNames();
+
+    /**
+     * Catálogo paginado de cultos con filtros opcionales resueltos en SQL.
+     * Los filtros nulos se ignoran.
+     */
+    @Query("SELECT w.idWorship AS idWorship, w.name AS name, w.address AS address, w.phone AS phone, " +
+            "w.dayOfWeek AS dayOfWeek, w.hour AS hour FROM Worship w " +
+            "WHERE (:name IS NULL OR LOWER(w.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+            "AND (:dayOfWeek IS NULL OR w.dayOfWeek = :dayOfWeek) " +
+            "AND (:hourFrom IS NULL OR w.hour >= :hourFrom) " +
+            "AND (:hourTo IS NULL OR w.hour <= :hourTo)")
+    Page<WorshipListView> findCatalog(@Param("name") String name,
+                                      @Param("dayOfWeek") DayOfWeek dayOfWeek,
+                                      @Param("hourFrom") LocalTime hourFrom,
+                                      @Param("hourTo") LocalTime hourTo,
+                                      Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package com.revoktek.services.rulesException;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * El pool de hashing de contraseñas está saturado; la petición debe reintentarse más tarde (503).
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
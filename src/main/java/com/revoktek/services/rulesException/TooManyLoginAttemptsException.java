@@ -0,0 +1,12 @@
+package com.revoktek.services.rulesException;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * El username excedió el número de intentos de login permitidos (429).
+ */
+public class TooManyLoginAttemptsException extends AuthenticationServiceException {
+    public TooManyLoginAttemptsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,65 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.enums.Catalog;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión vigente de cada catálogo (grupos, cultos, eventos especiales).
+ *
+ * Las respuestas cacheadas y los ETags se calculan a partir de esta versión:
+ * cualquier escritura sobre el catálogo la incrementa y con ello deja obsoletas
+ * todas las respuestas anteriores sin tener que recorrer la caché.
+ *
+ * Consideraciones:
+ * - Dentro de una transacción el incremento se difiere hasta el commit, para que
+ *   nunca se cachee una versión nueva con datos que aún no son visibles
+ * - Las versiones inician con la hora de arranque para que un ETag emitido antes
+ *   de un reinicio no coincida con una versión nueva
+ */
+@Service
+@Log4j2
+public class CatalogVersionService {
+
+    private final Map<Catalog, AtomicLong> versions = new EnumMap<>(Catalog.class);
+
+    public CatalogVersionService() {
+        long start = System.currentTimeMillis();
+        for (Catalog catalog : Catalog.values()) {
+            versions.put(catalog, new AtomicLong(start));
+        }
+    }
+
+    public long currentVersion(Catalog catalog) {
+        return versions.get(catalog).get();
+    }
+
+    /**
+     * Marca el catálogo como modificado.
+     *
+     * @param catalog catálogo afectado por la escritura
+     */
+    public void invalidate(Catalog catalog) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(catalog);
+                }
+            });
+            return;
+        }
+        bump(catalog);
+    }
+
+    private void bump(Catalog catalog) {
+        long version = versions.get(catalog).incrementAndGet();
+        log.debug("Catálogo {} actualizado a la versión {}", catalog, version);
+    }
+}
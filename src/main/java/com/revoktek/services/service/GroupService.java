@@ -1,17 +1,19 @@
 package com.revoktek.services.service;
 
 
+import com.revoktek.services.mapper.CatalogMapper;
 import com.revoktek.services.model.AppConfig;
 import com.revoktek.services.model.Group;
 import com.revoktek.services.model.GroupMember;
-import com.revoktek.services.model.User;
 import com.revoktek.services.model.dto.groups.GroupAssignInstructorsDTO;
 import com.revoktek.services.model.dto.groups.GroupListDTO;
 import com.revoktek.services.model.dto.groups.GroupSaveDTO;
 import com.revoktek.services.model.dto.groups.PublicGroupDTO;
 import com.revoktek.services.model.dto.memberGroups.GroupDetailDTO;
 import com.revoktek.services.model.dto.memberGroups.GroupUserDTO;
+import com.revoktek.services.model.dto.users.SessionUser;
 import com.revoktek.services.model.enums.Authority;
+import com.revoktek.services.model.enums.Catalog;
 import com.revoktek.services.model.enums.GroupRole;
 import com.revoktek.services.repository.AppConfigRepository;
 import com.revoktek.services.repository.GroupMemberRepository;
@@ -19,26 +21,46 @@ import com.revoktek.services.repository.GroupRepository;
 import com.revoktek.services.repository.UserRepository;
 import com.revoktek.services.rulesException.EnumInvalidArgumentException;
 import com.revoktek.services.rulesException.ModelNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
 import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Service
 @Log4j2
 public class GroupService {
+    private static final String INSERT_MEMBER_SQL =
+            "INSERT INTO group_members (group_id, user_id, role, joined_at) VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE id = id";
+
     private final GroupRepository groupRepository;
     private final CategoryService categoryService;
     private final UtilService utilService;
     private final UserRepository userRepository;
     private final GroupMemberRepository groupMemberRepository;
     private final AppConfigRepository appConfigRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final NameSearchIndexService nameSearchIndexService;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Obtiene un listado preliminar de todos los grupos registrados.
@@ -52,24 +74,22 @@ public class GroupService {
      * - readOnly = true para evitar flush innecesarios
      * - Se retorna DTO en lugar de entidad para proteger el modelo
      * - dayOfWeek se expone como String para facilidad de consumo en frontend
+     * - Paginación y filtros se resuelven en SQL; solo se leen las columnas del listado
      *
-     * @return Lista de grupos en formato GroupListDTO
+     * @param name      (Opcional) Filtro por nombre (contiene)
+     * @param dayOfWeek (Opcional) Filtro por día de la semana
+     * @param hourFrom  (Opcional) Hora mínima
+     * @param hourTo    (Opcional) Hora máxima
+     * @param pageable  Información de paginación y orden
+     * @return Página de grupos en formato GroupListDTO
+     * @throws EnumInvalidArgumentException Si el valor de dayOfWeek no es válido
      */
     @Transactional(readOnly = true)
-    public List<GroupListDTO> findAll() {
+    public Page<GroupListDTO> findAll(String name, String dayOfWeek, LocalTime hourFrom, LocalTime hourTo,
+                                      Pageable pageable) throws EnumInvalidArgumentException {
 
-        return groupRepository.findAll()
-                .stream()
-                .map(group -> GroupListDTO.builder()
-                        .idGroup(group.getIdGroup())
-                        .name(group.getName())
-                        .address(group.getAddress())
-                        .phone(group.getPhone())
-                        .dayOfWeek(group.getDayOfWeek().name())
-                        .hour(group.getHour())
-                        .build()
-                )
-                .toList();
+        return groupRepository.findCatalog(name, utilService.parseDayOfWeek(dayOfWeek), hourFrom, hourTo, pageable)
+                .map(CatalogMapper::toListDTO);
     }
 
     /**
@@ -124,60 +144,89 @@ public class GroupService {
 
         // Persistencia del grupo
         groupRepository.save(group);
+        catalogVersionService.invalidate(Catalog.GROUPS);
 
         log.info("🟢 Grupo registrado con éxito: {}", dto.getName());
     }
 
 
     /**
-     * Asigna instructores a un grupo existente.
+     * Asigna instructores a uno o varios grupos existentes.
      *
      * Flujo:
-     * 1. Validar existencia del grupo
-     * 2. Validar existencia de usuarios
-     * 3. Validar que tengan rol INSTRUCTOR
-     * 4. Evitar duplicados (unique constraint)
-     * 5. Crear relación GroupMember
+     * 1. Validar existencia de los grupos (una consulta)
+     * 2. Validar existencia de usuarios y rol INSTRUCTOR (una consulta en base de datos, no en el directorio en memoria)
+     * 3. Obtener las relaciones que ya existen para esos grupos y usuarios (una consulta)
+     * 4. Insertar las relaciones faltantes con un batch JDBC
+     *
+     * Consideraciones:
+     * - Se acepta groupId, groupIds o ambos
+     * - Idempotente: la restricción única es (group_id, user_id), así que cualquier relación
+     *   previa (como miembro o instructor) cuenta como asignada
+     * - Si algún usuario no existe o no tiene rol INSTRUCTOR se rechaza la petición completa
+     * - Con IDENTITY Hibernate no agrupa los INSERT; por eso se escriben con JdbcTemplate
+     * - ON DUPLICATE KEY UPDATE id = id: si otra petición asigna el mismo par al mismo tiempo, la fila
+     *   repetida no cambia nada; a diferencia de INSERT IGNORE, los errores de FK o truncado sí fallan
      */
     @Transactional
     public void assignInstructors(GroupAssignInstructorsDTO dto)
             throws ModelNotFoundException {
 
-        Group group = groupRepository.findById(dto.getGroupId())
-                .orElseThrow(() -> new ModelNotFoundException(Group.class, dto.getGroupId()));
-
-        for (Long instructorId : dto.getInstructorIds()) {
-
-            User instructor = userRepository.findById(instructorId)
-                    .orElseThrow(() -> new ModelNotFoundException(User.class, instructorId));
+        Set<Long> groupIds = new LinkedHashSet<>();
+        if (dto.getGroupId() != null) {
+            groupIds.add(dto.getGroupId());
+        }
+        if (dto.getGroupIds() != null) {
+            groupIds.addAll(dto.getGroupIds());
+        }
+        if (groupIds.isEmpty() || dto.getInstructorIds() == null || dto.getInstructorIds().isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un grupo y un instructor");
+        }
 
-            // Validación de rol de seguridad
-            if (!instructor.getSimpleAuthorities().contains(Authority.INSTRUCTOR)) {
-                log.warn("Usuario {} no tiene rol INSTRUCTOR", instructorId);
-                continue; // o lanzar excepción de negocio si lo prefieres
+        Set<Long> existingGroups = new HashSet<>(groupRepository.findExistingIds(groupIds));
+        for (Long groupId : groupIds) {
+            if (!existingGroups.contains(groupId)) {
+                throw new ModelNotFoundException(Group.class, groupId);
             }
+        }
 
-            boolean alreadyAssigned = group.getMembers().stream()
-                    .anyMatch(m ->
-                            m.getUser().getIdUser().equals(instructorId)
-                                    && m.getRole() == GroupRole.INSTRUCTOR
-                    );
+        // Existencia y rol en una sola consulta (el directorio en memoria es solo para autocompletado)
+        Set<Long> instructorIds = new LinkedHashSet<>(dto.getInstructorIds());
+        Set<Long> invalidIds = new LinkedHashSet<>(instructorIds);
+        invalidIds.removeAll(userRepository.findIdsWithAuthority(instructorIds, Authority.INSTRUCTOR));
+        if (!invalidIds.isEmpty()) {
+            throw new IllegalArgumentException("Los usuarios " + invalidIds + " no existen o no tienen rol INSTRUCTOR");
+        }
 
-            if (alreadyAssigned) {
-                continue; // idempotente
-            }
+        // Diferencia contra group_members en una sola consulta
+        Set<String> assigned = new HashSet<>();
+        for (Object[] pair : groupMemberRepository.findExistingPairs(groupIds, instructorIds)) {
+            assigned.add(pair[0] + ":" + pair[1]);
+        }
 
-            GroupMember member = GroupMember.builder()
-                    .group(group)
-                    .user(instructor)
-                    .role(GroupRole.INSTRUCTOR)
-                    .build();
+        List<Long[]> pending = new ArrayList<>();
+        for (Long groupId : groupIds) {
+            for (Long instructorId : instructorIds) {
+                if (!assigned.contains(groupId + ":" + instructorId)) {
+                    pending.add(new Long[]{groupId, instructorId});
+                }
+            }
+        }
 
-            group.getMembers().add(member);
+        if (!pending.isEmpty()) {
+            Timestamp joinedAt = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_MEMBER_SQL, pending, pending.size(), (ps, pair) -> {
+                ps.setLong(1, pair[0]);
+                ps.setLong(2, pair[1]);
+                ps.setString(3, GroupRole.INSTRUCTOR.name());
+                ps.setTimestamp(4, joinedAt);
+            });
+
+            // Los instructores forman parte de la búsqueda pública de grupos
+            catalogVersionService.invalidate(Catalog.GROUPS);
         }
 
-        groupRepository.save(group);
-        log.info("Instructores asignados al grupo {}", dto.getGroupId());
+        log.info("Instructores asignados: {} relaciones nuevas en los grupos {}", pending.size(), groupIds);
     }
 
     /**
@@ -249,6 +298,7 @@ public class GroupService {
         // 4️⃣ Persistencia
         // Hibernate detecta cambios automáticamente (dirty checking)
         groupRepository.save(group);
+        catalogVersionService.invalidate(Catalog.GROUPS);
 
         log.info("🟡 Grupo actualizado con éxito. ID: {}", groupId);
     }
@@ -266,62 +316,57 @@ public class GroupService {
     @Transactional(readOnly = true)
     public List<GroupListDTO> findMyInstructorGroups() {
 
-        User instructor = utilService.userInSession();
+        SessionUser instructor = utilService.sessionUser();
 
         // Validación de rol a nivel negocio
-        if (!instructor.getSimpleAuthorities().contains(Authority.INSTRUCTOR)) {
+        if (!instructor.hasAuthority(Authority.INSTRUCTOR)) {
             throw new IllegalStateException("El usuario no tiene rol INSTRUCTOR");
         }
 
         return groupMemberRepository
                 .findByUserIdUserAndRole(
-                        instructor.getIdUser(),
+                        instructor.idUser(),
                         GroupRole.INSTRUCTOR
                 )
                 .stream()
-                .map(member -> {
-                    Group group = member.getGroup();
-
-                    return GroupListDTO.builder()
-                            .idGroup(group.getIdGroup())
-                            .name(group.getName())
-                            .address(group.getAddress())
-                            .phone(group.getPhone())
-                            .dayOfWeek(group.getDayOfWeek().name())
-                            .hour(group.getHour())
-                            .build();
-                })
+                .map(member -> CatalogMapper.toListDTO(member.getGroup()))
                 .toList();
     }
 
+    /**
+     * Obtiene los grupos públicos cuyo nombre contiene la categoría indicada.
+     *
+     * Consideraciones:
+     * - La coincidencia se resuelve en el índice en memoria (NameSearchIndexService),
+     *   sin distinguir acentos ni mayúsculas: "teologia" encuentra "Teología 1"
+     * - Solo se consultan en base de datos los grupos que coincidieron, por ID
+     * - Los nombres de los instructores de todos esos grupos se leen en una sola proyección
+     *
+     * @param categoryName nombre de la categoría
+     * @return grupos con sus instructores, ordenados por ID
+     */
     @Transactional(readOnly = true)
     public List<PublicGroupDTO> findPublicGroupsByCategory(String categoryName) {
 
         // Buscamos grupos cuyo nombre contenga el nombre de la categoría
-        List<Group> groups =
-                groupRepository.findByNameContainingIgnoreCase(categoryName);
+        List<Long> groupIds = nameSearchIndexService.search(Catalog.GROUPS, categoryName);
+        if (groupIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Group> groups = groupRepository.findAllById(groupIds).stream()
+                .sorted(Comparator.comparing(Group::getIdGroup))
+                .toList();
+
+        Map<Long, List<String>> instructorsByGroup = new HashMap<>();
+        for (Object[] row : groupMemberRepository.findUserNamesByGroupsAndRole(groupIds, GroupRole.INSTRUCTOR)) {
+            instructorsByGroup.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(row[1] + " " + row[2] + " " + row[3]); // o nombre público
+        }
 
         return groups.stream()
-                .map(group -> {
-
-                    List<String> instructors =
-                            group.getMembers() == null
-                                    ? List.of()
-                                    : group.getMembers().stream()
-                                    .filter(m -> m.getRole() == GroupRole.INSTRUCTOR)
-                                    .map(m -> m.getUser().getNames() + " " + m.getUser().getPaternalSurname() + " " +m.getUser().getMaternalSurname() ) // o nombre público
-                                    .toList();
-
-                    return PublicGroupDTO.builder()
-                            .idGroup(group.getIdGroup())
-                            .name(group.getName())
-                            .address(group.getAddress())
-                            .phone(group.getPhone())
-                            .dayOfWeek(group.getDayOfWeek().name())
-                            .hour(group.getHour())
-                            .instructors(instructors) // vacío si no hay
-                            .build();
-                })
+                .map(group -> CatalogMapper.toPublicDTO(group,
+                        instructorsByGroup.getOrDefault(group.getIdGroup(), List.of()))) // instructores vacío si no hay
                 .toList();
     }
 
@@ -336,36 +381,30 @@ public class GroupService {
      */
     @Transactional
     public void joinGroup(Long idGroup) throws ModelNotFoundException {
-        User user = utilService.userInSession();
+        SessionUser user = utilService.sessionUser();
 
-        Group group = groupRepository.findById(idGroup)
-                .orElseThrow(() ->
-                        new ModelNotFoundException(Group.class, idGroup)
-                );
-
-        // Verificamos si ya está inscrito
-        boolean alreadyMember = group.getMembers().stream()
-                .anyMatch(m ->
-                        m.getUser().getIdUser().equals(user.getIdUser())
-                );
+        if (!groupRepository.existsById(idGroup)) {
+            throw new ModelNotFoundException(Group.class, idGroup);
+        }
 
-        if (alreadyMember) {
+        // Verificamos si ya está inscrito (consulta de existencia, no se carga la colección de miembros)
+        if (groupMemberRepository.existsByGroupIdGroupAndUserIdUser(idGroup, user.idUser())) {
             log.info("Usuario {} ya está inscrito en el grupo {}",
-                    user.getIdUser(), group.getIdGroup());
+                    user.idUser(), idGroup);
             return; // idempotente
         }
 
+        // Inserción directa de la relación; el grupo se referencia sin consultarlo
         GroupMember member = GroupMember.builder()
-                .group(group)
-                .user(user)
+                .group(groupRepository.getReferenceById(idGroup))
+                .user(utilService.userReferenceInSession())
                 .role(GroupRole.MEMBER)
                 .build();
 
-        group.getMembers().add(member);
-        groupRepository.save(group);
+        groupMemberRepository.save(member);
 
         log.info("🟢 Usuario {} inscrito en el grupo {}",
-                user.getIdUser(), group.getIdGroup());
+                user.idUser(), idGroup);
     }
 
     /**
@@ -381,72 +420,51 @@ public class GroupService {
     @Transactional(readOnly = true)
     public List<GroupListDTO> findMyGroups() {
 
-        User user = utilService.userInSession();
-        if (user == null) {
+        Long idUser = utilService.userIdInSession();
+        if (idUser == null) {
             throw new IllegalStateException("Usuario no autenticado");
         }
 
         List<GroupMember> memberships =
                 groupMemberRepository.findByUserIdUserAndRole(
-                        user.getIdUser(),
+                        idUser,
                         GroupRole.MEMBER
                 );
 
         return memberships.stream()
-                .map(member -> {
-                    Group group = member.getGroup();
-                    return GroupListDTO.builder()
-                            .idGroup(group.getIdGroup())
-                            .name(group.getName())
-                            .address(group.getAddress())
-                            .phone(group.getPhone())
-                            .dayOfWeek(group.getDayOfWeek().name())
-                            .hour(group.getHour())
-                            .build();
-                })
+                .map(member -> CatalogMapper.toListDTO(member.getGroup()))
                 .toList();
     }
 
+    /**
+     * Obtiene el detalle de un grupo con sus instructores y miembros.
+     *
+     * Consideraciones:
+     * - Instructores y miembros se obtienen con una proyección JPQL cada uno
+     *   (una consulta por rol, sin importar cuántos miembros tenga el grupo)
+     * - Los miembros pueden paginarse; con Pageable.unpaged() se devuelven todos.
+     *   hasMoreMembers indica si hay más miembros después de la página
+     *
+     * @param groupId       ID del grupo
+     * @param membersPage   paginación aplicada a la lista de miembros
+     */
     @Transactional(readOnly = true)
-    public GroupDetailDTO findDetailById(Long groupId)
+    public GroupDetailDTO findDetailById(Long groupId, Pageable membersPage)
             throws ModelNotFoundException {
 
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new ModelNotFoundException(Group.class, groupId));
 
         // Instructores
-        List<GroupUserDTO> instructors = group.getMembers().stream()
-                .filter(m -> m.getRole() == GroupRole.INSTRUCTOR)
-                .map(m -> mapToGroupUserDTO(m.getUser()))
-                .toList();
+        List<GroupUserDTO> instructors = groupMemberRepository
+                .findUsersByGroupAndRole(groupId, GroupRole.INSTRUCTOR, Pageable.unpaged())
+                .getContent();
 
         // Miembros
-        List<GroupUserDTO> members = group.getMembers().stream()
-                .filter(m -> m.getRole() == GroupRole.MEMBER)
-                .map(m -> mapToGroupUserDTO(m.getUser()))
-                .toList();
-
-        return GroupDetailDTO.builder()
-                .idGroup(group.getIdGroup())
-                .name(group.getName())
-                .address(group.getAddress())
-                .phone(group.getPhone())
-                .hour(group.getHour())
-                .instructors(instructors)
-                .members(members)
-                .build();
-    }
-
+        Slice<GroupUserDTO> members = groupMemberRepository
+                .findUsersByGroupAndRole(groupId, GroupRole.MEMBER, membersPage);
 
-    private GroupUserDTO mapToGroupUserDTO(User user) {
-        return GroupUserDTO.builder()
-                .age(user.getAge())
-                .names(user.getNames())
-                .phone(user.getPhone())
-                .paternalSurname(user.getPaternalSurname())
-                .maternalSurname(user.getMaternalSurname())
-                .residencyCity(user.getResidencyCity())
-                .build();
+        return CatalogMapper.toDetailDTO(group, instructors, members);
     }
 
     /**
@@ -461,7 +479,7 @@ public class GroupService {
     @Transactional
     public void leaveGroup(Long idGroup) throws ModelNotFoundException {
 
-        User user = utilService.userInSession();
+        Long idUser = utilService.userIdInSession();
 
         Group group = groupRepository.findById(idGroup)
                 .orElseThrow(() ->
@@ -472,7 +490,7 @@ public class GroupService {
         GroupMember membership = groupMemberRepository
                 .findByGroupIdGroupAndUserIdUserAndRole(
                         group.getIdGroup(),
-                        user.getIdUser(),
+                        idUser,
                         GroupRole.MEMBER
                 )
                 .orElse(null);
@@ -481,7 +499,7 @@ public class GroupService {
         if (membership == null) {
             log.info(
                     "Usuario {} no está inscrito como MEMBER en el grupo {}",
-                    user.getIdUser(),
+                    idUser,
                     group.getIdGroup()
             );
             return;
@@ -492,7 +510,7 @@ public class GroupService {
 
         log.info(
                 "🔴 Usuario {} salió del grupo {}",
-                user.getIdUser(),
+                idUser,
                 group.getIdGroup()
         );
     }
@@ -508,9 +526,9 @@ public class GroupService {
     @Transactional
     public void deleteGroup(Long idGroup) throws ModelNotFoundException {
 
-        User admin = utilService.userInSession();
+        SessionUser admin = utilService.sessionUser();
 
-        if (!admin.getSimpleAuthorities().contains(Authority.ADMIN)) {
+        if (!admin.hasAuthority(Authority.ADMIN)) {
             throw new IllegalStateException("No autorizado para eliminar grupos");
         }
 
@@ -520,9 +538,10 @@ public class GroupService {
                 );
 
         groupRepository.delete(group);
+        catalogVersionService.invalidate(Catalog.GROUPS);
 
         log.info("🔴 Grupo {} eliminado por el administrador {}",
-                group.getIdGroup(), admin.getIdUser());
+                group.getIdGroup(), admin.idUser());
     }
 
     /**
@@ -653,6 +672,7 @@ public class GroupService {
 
 
         groupRepository.saveAll(defaultGroups);
+        catalogVersionService.invalidate(Catalog.GROUPS);
 
         appConfigRepository.save(
                 new AppConfig("DEFAULT_GROUPS_INITIALIZED", "true")
@@ -0,0 +1,150 @@
+package com.revoktek.services.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritor asíncrono de la bitácora de inicios de sesión (tabla login_log).
+ *
+ * Funcionamiento:
+ * - El login solo encola el evento en una cola acotada; no espera a la base de datos
+ * - Un hilo dedicado vacía la cola por lotes y los inserta con un batch JDBC
+ *   (con IDENTITY, Hibernate no puede agrupar los INSERT)
+ *
+ * Consideraciones:
+ * - Contrapresión: si la cola está llena el evento se descarta y se contabiliza;
+ *   el login nunca se bloquea por la bitácora
+ * - Al apagar la aplicación se escriben los eventos pendientes
+ * - Métricas: loginLog.queue.depth, loginLog.written y loginLog.dropped
+ */
+@Service
+@Log4j2
+public class LoginLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO login_log "
+            + "(user_id, username, authenticated, login_time, ip_address, user_agent) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<LoginEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public LoginLogWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                          @Value("${loginLog.queueCapacity:10000}") int queueCapacity,
+                          @Value("${loginLog.batchSize:500}") int batchSize,
+                          @Value("${loginLog.flushIntervalMs:1000}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        Gauge.builder("loginLog.queue.depth", queue, BlockingQueue::size)
+                .description("Eventos de login pendientes de escribir")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("loginLog.written")
+                .description("Eventos de login escritos en base de datos")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("loginLog.dropped")
+                .description("Eventos de login descartados por cola llena o error de escritura")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = new Thread(this::drainLoop, "login-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Encola un evento de login. No bloquea.
+     *
+     * @return false si la cola estaba llena y el evento se descartó
+     */
+    public boolean enqueue(Long idUser, String username, LocalDateTime loginTime, String ipAddress, String userAgent) {
+        boolean accepted = queue.offer(new LoginEvent(idUser, username, loginTime, ipAddress, userAgent));
+        if (!accepted) {
+            droppedCounter.increment();
+            log.warn("Cola de bitácora de login llena, se descarta el evento de {}", username);
+        }
+        return accepted;
+    }
+
+    /**
+     * Detiene el hilo escritor y escribe lo que quede en la cola.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<LoginEvent> pending = new ArrayList<>();
+        while (queue.drainTo(pending, batchSize) > 0) {
+            write(pending);
+            pending.clear();
+        }
+        log.info("🔴 Escritor de bitácora de login detenido");
+    }
+
+    private void drainLoop() {
+        List<LoginEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                LoginEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // shutdown() escribe lo que quede en la cola
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<LoginEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setLong(1, event.idUser());
+                ps.setString(2, event.username());
+                ps.setBoolean(3, true);
+                ps.setTimestamp(4, Timestamp.valueOf(event.loginTime()));
+                ps.setString(5, event.ipAddress());
+                ps.setString(6, event.userAgent());
+            });
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            droppedCounter.increment(batch.size());
+            log.error("Error al escribir {} eventos de login", batch.size(), e);
+        }
+    }
+
+    private record LoginEvent(Long idUser, String username, LocalDateTime loginTime, String ipAddress,
+                              String userAgent) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.User;
+import com.revoktek.services.model.enums.Authority;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Entity listener que mantiene el {@link MemberDirectoryService} al día con las altas,
+ * cambios (incluido el cambio de estado) y bajas de usuarios.
+ *
+ * Consideraciones:
+ * - Igual que {@link NameSearchIndexListener}, el servicio se resuelve con ObjectProvider
+ *   y el directorio solo se modifica después del commit
+ * - Los datos se copian al momento del evento; después del commit la entidad puede cambiar
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberDirectoryListener {
+
+    private final ObjectProvider<MemberDirectoryService> memberDirectoryService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        Long id = user.getIdUser();
+        String names = user.getNames();
+        String paternalSurname = user.getPaternalSurname();
+        String maternalSurname = user.getMaternalSurname();
+        boolean enabled = user.isEnabled();
+        List<Authority> authorities = List.copyOf(user.getSimpleAuthorities());
+
+        afterCommit(() -> memberDirectoryService.getObject()
+                .put(id, names, paternalSurname, maternalSurname, enabled, authorities));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        Long id = user.getIdUser();
+        afterCommit(() -> memberDirectoryService.getObject().remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,207 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.dto.search.MemberSuggestionDTO;
+import com.revoktek.services.model.enums.Authority;
+import com.revoktek.services.repository.UserRepository;
+import com.revoktek.services.utils.SearchUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Directorio de usuarios en memoria: nombre completo, roles y estado de cada usuario.
+ *
+ * Funcionamiento:
+ * - Cada usuario es un registro compacto (id, nombre, roles como máscara de bits, habilitado)
+ * - Las palabras normalizadas del nombre ({@link SearchUtil#fold(String)}) se guardan en un mapa
+ *   ordenado palabra → IDs; una búsqueda por prefijo es un rango del mapa (como un trie)
+ * - Autocompletado: cada palabra capturada debe ser prefijo de alguna palabra del nombre,
+ *   así "jua per" encuentra "Juan Pérez López"
+ *
+ * Consideraciones:
+ * - Se carga completo durante el arranque, antes de que el servidor web acepte peticiones, y después
+ *   lo mantiene al día {@link MemberDirectoryListener} con cada alta o cambio de usuario confirmado
+ * - Es local a cada nodo y puede ir un instante detrás de la base de datos: solo alimenta el
+ *   autocompletado; la existencia y el rol de un usuario se validan siempre contra la base de datos
+ * - Las lecturas no bloquean; las escrituras se serializan
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class MemberDirectoryService implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, Member> members = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> words = new ConcurrentSkipListMap<>();
+
+    // IDs que cambiaron mientras se leía la carga inicial; sus filas leídas ya pueden estar viejas
+    private Set<Long> changedDuringLoad;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    /**
+     * Carga inicial del directorio con los usuarios existentes en base de datos.
+     * Las filas de usuarios que cambiaron mientras se leía (put/remove del listener) se descartan
+     * para no sobrescribir el valor más reciente con uno viejo.
+     */
+    public void load() {
+        synchronized (this) {
+            changedDuringLoad = new HashSet<>();
+        }
+
+        Map<Long, List<Authority>> authorities = new HashMap<>();
+        for (Object[] row : userRepository.findAllAuthorityRows()) {
+            authorities.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Authority) row[1]);
+        }
+        List<Object[]> rows = userRepository.findAllDirectoryRows();
+
+        synchronized (this) {
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                if (!changedDuringLoad.contains(id)) {
+                    index(id, (String) row[1], (String) row[2], (String) row[3], Boolean.TRUE.equals(row[4]),
+                            authorities.getOrDefault(id, List.of()));
+                }
+            }
+            changedDuringLoad = null;
+        }
+
+        log.info("🟢 Directorio de miembros cargado: {} usuarios", members.size());
+    }
+
+    /**
+     * Sugerencias de instructores habilitados para el autocompletado.
+     * Primero los nombres que empiezan con el texto, después los más cortos.
+     *
+     * @param text  texto capturado por el usuario
+     * @param limit número máximo de sugerencias
+     */
+    public List<MemberSuggestionDTO> suggestInstructors(String text, int limit) {
+        String query = SearchUtil.fold(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        return matching(query).stream()
+                .map(members::get)
+                .filter(member -> member != null && member.enabled() && member.has(Authority.INSTRUCTOR))
+                .sorted(Comparator
+                        .comparing((Member member) -> !member.folded().startsWith(query))
+                        .thenComparingInt(member -> member.fullName().length())
+                        .thenComparing(Member::fullName))
+                .limit(limit)
+                .map(member -> new MemberSuggestionDTO(member.id(), member.fullName()))
+                .toList();
+    }
+
+    /**
+     * Agrega o reemplaza un usuario en el directorio.
+     */
+    public synchronized void put(Long id, String names, String paternalSurname, String maternalSurname,
+                                 boolean enabled, Collection<Authority> authorities) {
+        markChanged(id);
+        index(id, names, paternalSurname, maternalSurname, enabled, authorities);
+    }
+
+    /**
+     * Elimina un usuario del directorio.
+     */
+    public synchronized void remove(Long id) {
+        markChanged(id);
+        unindex(id);
+    }
+
+    private void markChanged(Long id) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(id);
+        }
+    }
+
+    private void index(Long id, String names, String paternalSurname, String maternalSurname,
+                       boolean enabled, Collection<Authority> authorities) {
+        unindex(id);
+
+        String fullName = String.join(" ",
+                nonNull(names), nonNull(paternalSurname), nonNull(maternalSurname)).trim().replaceAll("\\s+", " ");
+        int authorityMask = 0;
+        for (Authority authority : authorities) {
+            authorityMask |= 1 << authority.ordinal();
+        }
+
+        Member member = new Member(id, fullName, SearchUtil.fold(fullName), authorityMask, enabled);
+        members.put(id, member);
+        for (String word : member.words()) {
+            words.computeIfAbsent(word, w -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void unindex(Long id) {
+        Member previous = members.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String word : previous.words()) {
+            Set<Long> ids = words.get(word);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    words.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * IDs cuyos nombres tienen, para cada palabra de la consulta, una palabra que empieza con ella.
+     */
+    private Set<Long> matching(String query) {
+        Set<Long> result = null;
+        for (String prefix : query.split(" ")) {
+            Set<Long> ids = new HashSet<>();
+            NavigableMap<String, Set<Long>> range = words.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            range.values().forEach(ids::addAll);
+
+            if (result == null) {
+                result = ids;
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? Set.of() : result;
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+
+    private record Member(Long id, String fullName, String folded, int authorityMask, boolean enabled) {
+
+        boolean has(Authority authority) {
+            return (authorityMask & (1 << authority.ordinal())) != 0;
+        }
+
+        List<String> words() {
+            return folded.isEmpty() ? List.of() : List.of(folded.split(" "));
+        }
+    }
+}
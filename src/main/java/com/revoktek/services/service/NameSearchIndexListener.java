@@ -0,0 +1,70 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.Group;
+import com.revoktek.services.model.SpecialEvent;
+import com.revoktek.services.model.Worship;
+import com.revoktek.services.model.enums.Catalog;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entity listener que mantiene el {@link NameSearchIndexService} al día con las altas,
+ * cambios y bajas de grupos, cultos y eventos especiales.
+ *
+ * Consideraciones:
+ * - Hibernate lo obtiene como bean de Spring, por eso el índice se resuelve con
+ *   ObjectProvider (el EntityManagerFactory se crea antes que los repositorios del índice)
+ * - El índice solo se modifica después del commit; un rollback no deja nombres fantasma
+ */
+@Component
+@RequiredArgsConstructor
+public class NameSearchIndexListener {
+
+    private final ObjectProvider<NameSearchIndexService> nameSearchIndexService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Group group) {
+            afterCommit(() -> nameSearchIndexService.getObject()
+                    .put(Catalog.GROUPS, group.getIdGroup(), group.getName()));
+        } else if (entity instanceof Worship worship) {
+            afterCommit(() -> nameSearchIndexService.getObject()
+                    .put(Catalog.WORSHIPS, worship.getIdWorship(), worship.getName()));
+        } else if (entity instanceof SpecialEvent specialEvent) {
+            afterCommit(() -> nameSearchIndexService.getObject()
+                    .put(Catalog.SPECIAL_EVENTS, specialEvent.getIdSpecialEvent(), specialEvent.getName()));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Group group) {
+            afterCommit(() -> nameSearchIndexService.getObject().remove(Catalog.GROUPS, group.getIdGroup()));
+        } else if (entity instanceof Worship worship) {
+            afterCommit(() -> nameSearchIndexService.getObject().remove(Catalog.WORSHIPS, worship.getIdWorship()));
+        } else if (entity instanceof SpecialEvent specialEvent) {
+            afterCommit(() -> nameSearchIndexService.getObject()
+                    .remove(Catalog.SPECIAL_EVENTS, specialEvent.getIdSpecialEvent()));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,255 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.dto.search.SearchSuggestionDTO;
+import com.revoktek.services.model.enums.Catalog;
+import com.revoktek.services.repository.GroupRepository;
+import com.revoktek.services.repository.SpecialEventRepository;
+import com.revoktek.services.repository.WorshipRepository;
+import com.revoktek.services.utils.SearchUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria para buscar grupos, cultos y eventos especiales por nombre.
+ *
+ * Funcionamiento:
+ * - Los nombres se normalizan con {@link SearchUtil#fold(String)} (sin acentos ni mayúsculas),
+ *   así "teologia" encuentra "Teología"
+ * - Cada nombre se descompone en trigramas; una búsqueda intersecta los trigramas de la
+ *   consulta y confirma el resultado con un contains sobre el nombre normalizado
+ * - Consultas de menos de tres letras recorren los nombres directamente (son pocos)
+ *
+ * Consideraciones:
+ * - Se carga completo durante el arranque, antes de que el servidor web acepte peticiones, y después
+ *   lo mantiene al día {@link NameSearchIndexListener} con cada alta, cambio o baja confirmada
+ * - Las lecturas no bloquean; las escrituras de un mismo catálogo se serializan
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class NameSearchIndexService implements SmartInitializingSingleton {
+
+    private static final int GRAM_SIZE = 3;
+
+    private final GroupRepository groupRepository;
+    private final WorshipRepository worshipRepository;
+    private final SpecialEventRepository specialEventRepository;
+
+    private final Map<Catalog, NameIndex> indexes = createIndexes();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    /**
+     * Carga inicial del índice con los nombres existentes en base de datos.
+     * Los registros que cambiaron mientras se leía (put/remove del listener) se descartan
+     * para no sobrescribir el valor más reciente con uno viejo.
+     */
+    public void load() {
+        indexes.values().forEach(NameIndex::beginLoad);
+
+        indexes.get(Catalog.GROUPS).finishLoad(groupRepository.findAllNames());
+        indexes.get(Catalog.WORSHIPS).finishLoad(worshipRepository.findAllNames());
+        indexes.get(Catalog.SPECIAL_EVENTS).finishLoad(specialEventRepository.findAllNames());
+
+        log.info("🟢 Índice de búsqueda cargado: {} grupos, {} cultos, {} eventos especiales",
+                indexes.get(Catalog.GROUPS).size(),
+                indexes.get(Catalog.WORSHIPS).size(),
+                indexes.get(Catalog.SPECIAL_EVENTS).size());
+    }
+
+    /**
+     * Obtiene los IDs cuyo nombre contiene el texto buscado (sin distinguir acentos ni mayúsculas).
+     *
+     * @param catalog catálogo a consultar
+     * @param text    texto a buscar; vacío devuelve todos
+     * @return IDs ordenados de forma ascendente
+     */
+    public List<Long> search(Catalog catalog, String text) {
+        return indexes.get(catalog).search(SearchUtil.fold(text))
+                .stream()
+                .map(Entry::id)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Sugerencias para typeahead sobre los tres catálogos.
+     *
+     * Primero se muestran los nombres que empiezan con el texto, después los que lo contienen;
+     * dentro de cada bloque, los nombres más cortos primero.
+     *
+     * @param text  texto capturado por el usuario
+     * @param limit número máximo de sugerencias
+     */
+    public List<SearchSuggestionDTO> suggest(String text, int limit) {
+        String query = SearchUtil.fold(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        List<SearchSuggestionDTO> suggestions = new ArrayList<>();
+        for (Map.Entry<Catalog, NameIndex> index : indexes.entrySet()) {
+            for (Entry entry : index.getValue().search(query)) {
+                suggestions.add(SearchSuggestionDTO.builder()
+                        .catalog(index.getKey())
+                        .id(entry.id())
+                        .name(entry.name())
+                        .build());
+            }
+        }
+
+        return suggestions.stream()
+                .sorted(Comparator
+                        .comparing((SearchSuggestionDTO s) -> !SearchUtil.fold(s.getName()).startsWith(query))
+                        .thenComparingInt(s -> s.getName().length())
+                        .thenComparing(SearchSuggestionDTO::getName))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Agrega o reemplaza el nombre de un registro en el índice.
+     */
+    public void put(Catalog catalog, Long id, String name) {
+        indexes.get(catalog).put(id, name);
+    }
+
+    /**
+     * Elimina un registro del índice.
+     */
+    public void remove(Catalog catalog, Long id) {
+        indexes.get(catalog).remove(id);
+    }
+
+    private static Map<Catalog, NameIndex> createIndexes() {
+        Map<Catalog, NameIndex> map = new EnumMap<>(Catalog.class);
+        for (Catalog catalog : Catalog.values()) {
+            map.put(catalog, new NameIndex());
+        }
+        return map;
+    }
+
+    private static Set<String> grams(String folded) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private record Entry(Long id, String name, String folded) {
+    }
+
+    /**
+     * Índice de trigramas de un catálogo.
+     */
+    private static class NameIndex {
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        // IDs que cambiaron mientras se leía la carga inicial; sus filas leídas ya pueden estar viejas
+        private Set<Long> changedDuringLoad;
+
+        int size() {
+            return entries.size();
+        }
+
+        synchronized void beginLoad() {
+            changedDuringLoad = new HashSet<>();
+        }
+
+        synchronized void finishLoad(List<Object[]> rows) {
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                if (!changedDuringLoad.contains(id)) {
+                    index(id, (String) row[1]);
+                }
+            }
+            changedDuringLoad = null;
+        }
+
+        synchronized void put(Long id, String name) {
+            markChanged(id);
+            index(id, name);
+        }
+
+        synchronized void remove(Long id) {
+            markChanged(id);
+            unindex(id);
+        }
+
+        private void markChanged(Long id) {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(id);
+            }
+        }
+
+        private void index(Long id, String name) {
+            unindex(id);
+            Entry entry = new Entry(id, name, SearchUtil.fold(name));
+            entries.put(id, entry);
+            for (String gram : grams(entry.folded())) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        private void unindex(Long id) {
+            Entry previous = entries.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String gram : grams(previous.folded())) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        List<Entry> search(String query) {
+            if (query.length() < GRAM_SIZE) {
+                return entries.values().stream()
+                        .filter(entry -> entry.folded().contains(query))
+                        .toList();
+            }
+
+            // Se parte de la lista de IDs más corta para que la intersección sea mínima
+            List<Set<Long>> candidates = new ArrayList<>();
+            for (String gram : grams(query)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                candidates.add(ids);
+            }
+            candidates.sort(Comparator.comparingInt(Set::size));
+
+            List<Entry> result = new ArrayList<>();
+            for (Long id : candidates.get(0)) {
+                boolean inAll = candidates.stream().allMatch(ids -> ids.contains(id));
+                Entry entry = entries.get(id);
+                if (inAll && entry != null && entry.folded().contains(query)) {
+                    result.add(entry);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.SpecialEventHold;
+import com.revoktek.services.model.SpecialEventMember;
+import com.revoktek.services.model.SpecialEventWaitlist;
+import com.revoktek.services.model.enums.Catalog;
+import com.revoktek.services.model.enums.GroupRole;
+import com.revoktek.services.repository.SpecialEventHoldRepository;
+import com.revoktek.services.repository.SpecialEventMemberRepository;
+import com.revoktek.services.repository.SpecialEventRepository;
+import com.revoktek.services.repository.SpecialEventWaitlistRepository;
+import com.revoktek.services.rulesException.SpecialEventExpiredException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de reservación de cupos para eventos especiales.
+ *
+ * Responsabilidades:
+ * - Descontar cupos con un UPDATE condicional (sin read-modify-write)
+ * - Rechazar de inmediato cuando el evento no tiene cupo suficiente
+ * - Restaurar cupos sin exceder numberOfSlots
+ * - Promover a la lista de espera en orden FIFO cuando se liberan cupos
+ * - Recuperar periódicamente los cupos de apartados (holds) vencidos
+ *
+ * Consideraciones:
+ * - Se ejecuta dentro de la transacción del llamador (MANDATORY), de modo que
+ *   si la inscripción falla después de reservar, el descuento se revierte
+ * - La fila del evento solo queda bloqueada el tiempo que dura el UPDATE
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class SpecialEventReservationService {
+
+    private final SpecialEventRepository specialEventRepository;
+    private final SpecialEventMemberRepository specialEventMemberRepository;
+    private final SpecialEventWaitlistRepository specialEventWaitlistRepository;
+    private final SpecialEventHoldRepository specialEventHoldRepository;
+    private final CatalogVersionService catalogVersionService;
+
+    @Value("${specialEvent.hold.sweepBatchSize:500}")
+    private int sweepBatchSize;
+
+    /**
+     * Calcula los cupos que ocupa un usuario: él mismo más sus dependientes.
+     *
+     * @param numberDependents número de dependientes del usuario (puede ser null)
+     */
+    public int slotsRequired(Integer numberDependents) {
+        return (numberDependents != null ? numberDependents : 0) + 1;
+    }
+
+    /**
+     * Reserva cupos en el evento de forma atómica.
+     *
+     * @param idSpecialEvent ID del evento especial
+     * @param slots          cupos a descontar
+     * @throws SpecialEventExpiredException si no quedan cupos suficientes
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Long idSpecialEvent, int slots) {
+        if (!tryReserve(idSpecialEvent, slots)) {
+            throw new SpecialEventExpiredException("Ya no quedan cupos para inscribirse en este evento");
+        }
+    }
+
+    /**
+     * Intenta reservar cupos en el evento de forma atómica.
+     *
+     * @return true si los cupos fueron descontados, false si el evento no tiene cupo suficiente
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(Long idSpecialEvent, int slots) {
+        boolean reserved = specialEventRepository.reserveSlots(idSpecialEvent, slots) == 1;
+        if (!reserved) {
+            log.info("Sin cupo suficiente en el evento especial {} para {} lugares", idSpecialEvent, slots);
+            return false;
+        }
+        // El listado de eventos expone slotsRemaining
+        catalogVersionService.invalidate(Catalog.SPECIAL_EVENTS);
+        return true;
+    }
+
+    /**
+     * Restaura cupos en el evento sin pasar el máximo permitido.
+     *
+     * @param idSpecialEvent ID del evento especial
+     * @param slots          cupos a restaurar
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long idSpecialEvent, int slots) {
+        specialEventRepository.releaseSlots(idSpecialEvent, slots);
+        catalogVersionService.invalidate(Catalog.SPECIAL_EVENTS);
+    }
+
+    /**
+     * Inscribe a los usuarios en lista de espera mientras haya cupo para ellos.
+     *
+     * Reglas:
+     * - Orden FIFO estricto: si la cabeza de la lista no cabe, nadie detrás de ella avanza
+     * - Cada promoción descuenta cupos, crea la membresía (con los cupos descontados) y elimina la entrada de la lista
+     *   dentro de la misma transacción que liberó los cupos
+     *
+     * @param idSpecialEvent ID del evento especial
+     * @return número de usuarios promovidos
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int promoteWaitlist(Long idSpecialEvent) {
+        int promoted = 0;
+
+        while (true) {
+            SpecialEventWaitlist head = specialEventWaitlistRepository
+                    .findFirstBySpecialEventIdSpecialEventOrderByIdAsc(idSpecialEvent)
+                    .orElse(null);
+
+            if (head == null) {
+                break;
+            }
+            int slots = slotsRequired(head.getUser().getNumberDependents());
+            if (!tryReserve(idSpecialEvent, slots)) {
+                break;
+            }
+
+            SpecialEventMember member = SpecialEventMember.builder()
+                    .specialEvent(head.getSpecialEvent())
+                    .user(head.getUser())
+                    .role(GroupRole.MEMBER)
+                    .slots(slots)
+                    .build();
+
+            specialEventMemberRepository.save(member);
+            specialEventWaitlistRepository.delete(head);
+            promoted++;
+
+            log.info("🟢 Usuario {} promovido de la lista de espera al evento especial {}",
+                    head.getUser().getIdUser(), idSpecialEvent);
+        }
+
+        return promoted;
+    }
+
+    /**
+     * Barrido periódico de apartados vencidos.
+     *
+     * Flujo:
+     * 1. Bloquea un lote de apartados con expiresAt vencido
+     * 2. Agrupa los cupos por evento
+     * 3. Elimina el lote con un solo DELETE
+     * 4. Restaura los cupos con un UPDATE por evento (no uno por apartado)
+     *    y promueve la lista de espera de cada evento afectado
+     *
+     * El costo por ejecución está acotado por sweepBatchSize sin importar
+     * cuántos apartados existan en total.
+     */
+    @Scheduled(fixedDelayString = "${specialEvent.hold.sweepDelayMs:30000}")
+    @Transactional
+    public void releaseExpiredHolds() {
+        List<SpecialEventHold> expired = specialEventHoldRepository
+                .findByExpiresAtBeforeOrderByIdAsc(LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> slotsByEvent = expired.stream()
+                .collect(Collectors.groupingBy(
+                        hold -> hold.getSpecialEvent().getIdSpecialEvent(),
+                        Collectors.summingInt(SpecialEventHold::getSlots)
+                ));
+
+        specialEventHoldRepository.deleteAllInBatch(expired);
+
+        slotsByEvent.forEach((idSpecialEvent, slots) -> {
+            release(idSpecialEvent, slots);
+            promoteWaitlist(idSpecialEvent);
+        });
+
+        log.info("🟡 Apartados vencidos liberados: {} en {} eventos especiales",
+                expired.size(), slotsByEvent.size());
+    }
+}
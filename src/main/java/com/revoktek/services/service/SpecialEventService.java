@@ -1,23 +1,37 @@
 package com.revoktek.services.service;
 
+import com.revoktek.services.mapper.CatalogMapper;
 import com.revoktek.services.model.*;
+import com.revoktek.services.model.dto.users.SessionUser;
 import com.revoktek.services.model.dto.specialEventMembers.SpecialEventsDetailDTO;
 import com.revoktek.services.model.dto.specialEventMembers.SpecialEventsUserDTO;
 import com.revoktek.services.model.dto.specialEvents.SpecialEventsListDTO;
 import com.revoktek.services.model.dto.specialEvents.SpecialEventsSaveDTO;
 import com.revoktek.services.model.enums.Authority;
+import com.revoktek.services.model.enums.Catalog;
 import com.revoktek.services.model.enums.GroupRole;
+import com.revoktek.services.repository.SpecialEventHoldRepository;
 import com.revoktek.services.repository.SpecialEventMemberRepository;
 import com.revoktek.services.repository.SpecialEventRepository;
+import com.revoktek.services.repository.SpecialEventWaitlistRepository;
 import com.revoktek.services.rulesException.EnumInvalidArgumentException;
 import com.revoktek.services.rulesException.ModelNotFoundException;
 import com.revoktek.services.rulesException.SpecialEventExpiredException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Locale;
 
@@ -28,6 +42,25 @@ public class SpecialEventService {
     private final UtilService utilService;
     private final SpecialEventRepository specialEventRepository;
     private final SpecialEventMemberRepository specialEventMemberRepository;
+    private final SpecialEventReservationService reservationService;
+    private final SpecialEventWaitlistRepository specialEventWaitlistRepository;
+    private final SpecialEventHoldRepository specialEventHoldRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_MEMBER_SQL =
+            "INSERT INTO special_event_members (special_event_id, user_id, role, slots, joined_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_WAITLIST_SQL =
+            "INSERT INTO special_event_waitlist (special_event_id, user_id, requested_at) VALUES (?, ?, ?)";
+    private static final String INSERT_HOLD_SQL =
+            "INSERT INTO special_event_holds (special_event_id, user_id, slots, expires_at, renewals, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Value("${specialEvent.hold.ttlMinutes:10}")
+    private long holdTtlMinutes;
+
+    @Value("${specialEvent.hold.maxRenewals:2}")
+    private int holdMaxRenewals;
 
     /**
      * Obtiene un listado preliminar de todos los eventosEspecialess registrados.
@@ -41,26 +74,22 @@ public class SpecialEventService {
      * - readOnly = true para evitar flush innecesarios
      * - Se retorna DTO en lugar de entidad para proteger el modelo
      * - dayOfWeek se expone como String para facilidad de consumo en frontend
+     * - Paginación y filtros se resuelven en SQL; solo se leen las columnas del listado
      *
-     * @return Lista de eventosEspecialess en formato WorkshipListDTO
+     * @param name      (Opcional) Filtro por nombre (contiene)
+     * @param dayOfWeek (Opcional) Filtro por día de la semana
+     * @param hourFrom  (Opcional) Hora mínima
+     * @param hourTo    (Opcional) Hora máxima
+     * @param pageable  Información de paginación y orden
+     * @return Página de eventosEspecialess en formato WorkshipListDTO
+     * @throws EnumInvalidArgumentException Si el valor de dayOfWeek no es válido
      */
     @Transactional(readOnly = true)
-    public List<SpecialEventsListDTO> findAll() {
-
-        return specialEventRepository.findAll()
-                .stream()
-                .map(specialEvent -> SpecialEventsListDTO.builder()
-                        .idSpecialEvent(specialEvent.getIdSpecialEvent())
-                        .name(specialEvent.getName())
-                        .address(specialEvent.getAddress())
-                        .phone(specialEvent.getPhone())
-                        .dayOfWeek(specialEvent.getDayOfWeek().name())
-                        .hour(specialEvent.getHour())
-                        .slotsRemaining(specialEvent.getSlotsRemaining())
-                        .numberOfSlots(specialEvent.getNumberOfSlots())
-                        .build()
-                )
-                .toList();
+    public Page<SpecialEventsListDTO> findAll(String name, String dayOfWeek, LocalTime hourFrom, LocalTime hourTo,
+                                              Pageable pageable) throws EnumInvalidArgumentException {
+
+        return specialEventRepository.findCatalog(name, utilService.parseDayOfWeek(dayOfWeek), hourFrom, hourTo, pageable)
+                .map(CatalogMapper::toListDTO);
     }
 
     /**
@@ -114,6 +143,7 @@ public class SpecialEventService {
 
         // Persistencia del eventosEspeciales
         specialEventRepository.save(specialEvent);
+        catalogVersionService.invalidate(Catalog.SPECIAL_EVENTS);
 
         log.info("🟢 Evento Especial registrado con éxito: {}", dto.getName());
     }
@@ -191,6 +221,7 @@ public class SpecialEventService {
         // 4️⃣ Persistencia
         // Hibernate detecta cambios automáticamente (dirty checking)
         specialEventRepository.save(specialEvent);
+        catalogVersionService.invalidate(Catalog.SPECIAL_EVENTS);
 
         log.info("🟡 Evento Especial actualizado con éxito. ID: {}", specialEventId);
     }
@@ -204,46 +235,250 @@ public class SpecialEventService {
      * - El eventosEspeciales debe existir
      * - No permite duplicados
      * - El rol asignado es MEMBER
+     * - Los cupos se descuentan con un UPDATE condicional, nunca se sobrevende
+     * - Si el evento está lleno (o ya hay lista de espera) el usuario se forma en la lista de espera
+     * - Dos peticiones concurrentes del mismo usuario no fallan: la segunda devuelve sus cupos
+     *   y responde como si ya estuviera inscrito
+     *
+     * @return true si quedó inscrito, false si quedó en lista de espera
      */
     @Transactional
-    public void joinWorship(Long idSpecialEvent) throws ModelNotFoundException {
-        User user = utilService.userInSession();
+    public boolean joinWorship(Long idSpecialEvent) throws ModelNotFoundException {
+        SessionUser user = utilService.sessionUser();
 
         SpecialEvent specialEvent = specialEventRepository.findById(idSpecialEvent)
                 .orElseThrow(() ->
                         new ModelNotFoundException(SpecialEvent.class, idSpecialEvent)
                 );
 
-        // Verificamos si ya está inscrito
-        boolean alreadyMember = specialEvent.getMembers().stream()
-                .anyMatch(m ->
-                        m.getUser().getIdUser().equals(user.getIdUser())
-                );
+        // Verificamos si ya está inscrito (consulta de existencia, no se carga la colección de miembros)
+        boolean alreadyMember = specialEventMemberRepository
+                .existsBySpecialEventIdSpecialEventAndUserIdUser(idSpecialEvent, user.idUser());
 
         if (alreadyMember) {
             log.info("Usuario {} ya está inscrito en el evento {}",
-                    user.getIdUser(), specialEvent.getIdSpecialEvent());
-            return; // idempotente
+                    user.idUser(), specialEvent.getIdSpecialEvent());
+            return true; // idempotente
+        }
+
+        // Si el usuario ya tenía un lugar apartado vigente, la inscripción lo confirma.
+        // Uno vencido que el barrido aún no procesa se libera aquí y se sigue el flujo normal
+        SpecialEventHold hold = lockHold(idSpecialEvent, user.idUser());
+
+        if (hold != null) {
+            if (!isExpired(hold)) {
+                confirmHold(hold, specialEvent, user);
+                return true;
+            }
+            releaseExpiredHold(hold);
+        }
+
+        int slotsRequired = reservationService.slotsRequired(user.numberDependents());
+
+        if (specialEvent.getNumberOfSlots() == null || specialEvent.getNumberOfSlots() < slotsRequired) {
+            throw new SpecialEventExpiredException("El evento no tiene cupos suficientes para el usuario y sus dependientes");
+        }
+
+        // FIFO: si ya hay gente esperando no se permite rebasar la lista.
+        // Con la lectura actual se evita el UPDATE cuando el evento ya está lleno
+        // (si se liberó un apartado la lectura quedó desfasada y decide solo el UPDATE condicional)
+        boolean soldOut = (hold == null && (specialEvent.getSlotsRemaining() == null
+                || specialEvent.getSlotsRemaining() < slotsRequired))
+                || specialEventWaitlistRepository.existsBySpecialEventIdSpecialEvent(idSpecialEvent);
+
+        // Descuento atómico: el UPDATE condicional garantiza que no se sobrevenda
+        // aunque lleguen inscripciones concurrentes
+        if (soldOut || !reservationService.tryReserve(idSpecialEvent, slotsRequired)) {
+            addToWaitlist(specialEvent, user);
+            return false;
+        }
+
+        // Si otra petición del mismo usuario ganó la carrera, la restricción única rechaza la fila
+        // y se devuelven los cupos; cualquier otro error de integridad (FK, truncado) se propaga
+        try {
+            jdbcTemplate.update(INSERT_MEMBER_SQL, idSpecialEvent, user.idUser(), GroupRole.MEMBER.name(),
+                    slotsRequired, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            reservationService.release(idSpecialEvent, slotsRequired);
+            log.info("Usuario {} ya está inscrito en el evento {}", user.idUser(), idSpecialEvent);
+            return true; // idempotente
+        }
+
+        log.info("🟢 Usuario {} inscrito en el Evento Especial {}",
+                user.idUser(), specialEvent.getIdSpecialEvent());
+        return true;
+    }
+
+    /**
+     * Aparta lugares para el usuario autenticado durante un tiempo limitado (fase 1).
+     *
+     * Reglas:
+     * - Los cupos se descuentan de inmediato con el mismo UPDATE condicional que la inscripción
+     * - El apartado expira tras specialEvent.hold.ttlMinutes si no se confirma
+     * - Repetir la petición renueva la vigencia del apartado existente, como máximo
+     *   specialEvent.hold.maxRenewals veces
+     * - Los apartados no entran a lista de espera: sin cupo, o si ya hay gente esperando (FIFO), se rechazan
+     *
+     * @return fecha y hora en que expira el apartado
+     */
+    @Transactional
+    public LocalDateTime holdSlots(Long idSpecialEvent) throws ModelNotFoundException {
+        SessionUser user = utilService.sessionUser();
+
+        SpecialEvent specialEvent = specialEventRepository.findById(idSpecialEvent)
+                .orElseThrow(() ->
+                        new ModelNotFoundException(SpecialEvent.class, idSpecialEvent)
+                );
+
+        // Misma verificación que la inscripción: cualquier relación previa (miembro o instructor) cuenta
+        if (specialEventMemberRepository
+                .existsBySpecialEventIdSpecialEventAndUserIdUser(idSpecialEvent, user.idUser())) {
+            throw new IllegalStateException("El usuario ya está inscrito en este evento");
         }
 
-        int slotsRemaining = specialEvent.getSlotsRemaining() - (user.getNumberDependents() + 1);
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(holdTtlMinutes);
+
+        SpecialEventHold hold = lockHold(idSpecialEvent, user.idUser());
+
+        // Un apartado vencido no se revive: se liberan sus cupos y se trata como una petición nueva
+        boolean releasedHold = hold != null && isExpired(hold);
+        if (releasedHold) {
+            releaseExpiredHold(hold);
+        }
+
+        // El apartado conserva sus cupos, solo se renueva la vigencia (con un máximo de renovaciones)
+        if (hold != null && !releasedHold) {
+            if (hold.getRenewals() >= holdMaxRenewals) {
+                throw new IllegalStateException("El lugar apartado ya no puede renovarse, confirma tu inscripción");
+            }
+            hold.setRenewals(hold.getRenewals() + 1);
+            hold.setExpiresAt(expiresAt);
+            return expiresAt;
+        }
 
-        if(specialEvent.getSlotsRemaining() <= 0 || slotsRemaining <= 0){
+        int slotsRequired = reservationService.slotsRequired(user.numberDependents());
+
+        // FIFO: igual que en la inscripción, un apartado no puede rebasar a la lista de espera
+        if ((!releasedHold && (specialEvent.getSlotsRemaining() == null
+                || specialEvent.getSlotsRemaining() < slotsRequired))
+                || specialEventWaitlistRepository.existsBySpecialEventIdSpecialEvent(idSpecialEvent)) {
             throw new SpecialEventExpiredException("Ya no quedan cupos para inscribirse en este evento");
         }
 
+        reservationService.reserve(idSpecialEvent, slotsRequired);
+
+        // La restricción única (special_event_id, user_id) resuelve la carrera entre dos apartados
+        // del mismo usuario: el que pierde devuelve sus cupos y responde con el apartado ganador
+        try {
+            jdbcTemplate.update(INSERT_HOLD_SQL, idSpecialEvent, user.idUser(), slotsRequired,
+                    Timestamp.valueOf(expiresAt), 0, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            reservationService.release(idSpecialEvent, slotsRequired);
+            SpecialEventHold concurrentHold = lockHold(idSpecialEvent, user.idUser());
+            if (concurrentHold == null) {
+                throw new IllegalStateException("El lugar apartado cambió mientras se procesaba, vuelve a intentarlo");
+            }
+            return concurrentHold.getExpiresAt();
+        }
+
+        log.info("🟡 Usuario {} apartó {} lugares en el Evento Especial {} hasta {}",
+                user.idUser(), slotsRequired, idSpecialEvent, expiresAt);
+        return expiresAt;
+    }
+
+    /**
+     * Confirma el apartado vigente del usuario autenticado y lo convierte en inscripción (fase 2).
+     *
+     * @throws SpecialEventExpiredException si el apartado ya expiró
+     * @throws IllegalStateException        si el usuario no tiene apartado en el evento
+     */
+    @Transactional
+    public void confirmHold(Long idSpecialEvent) throws ModelNotFoundException {
+        SessionUser user = utilService.sessionUser();
+
+        SpecialEvent specialEvent = specialEventRepository.findById(idSpecialEvent)
+                .orElseThrow(() ->
+                        new ModelNotFoundException(SpecialEvent.class, idSpecialEvent)
+                );
+
+        SpecialEventHold hold = lockHold(idSpecialEvent, user.idUser());
+        if (hold == null) {
+            throw new IllegalStateException("No existe un lugar apartado para este evento");
+        }
+
+        confirmHold(hold, specialEvent, user);
+    }
+
+    private void confirmHold(SpecialEventHold hold, SpecialEvent specialEvent, SessionUser user) {
+        // El barrido de vencidos es quien restaura los cupos; aquí solo se rechaza
+        if (isExpired(hold)) {
+            throw new SpecialEventExpiredException("El lugar apartado expiró, vuelve a intentarlo");
+        }
+
         SpecialEventMember member = SpecialEventMember.builder()
                 .specialEvent(specialEvent)
-                .user(user)
+                .user(utilService.userReferenceInSession())
                 .role(GroupRole.MEMBER)
+                .slots(hold.getSlots())
                 .build();
 
-        specialEvent.getMembers().add(member);
-        specialEvent.setSlotsRemaining(slotsRemaining);
-        specialEventRepository.save(specialEvent);
+        specialEventMemberRepository.save(member);
+        specialEventHoldRepository.delete(hold);
 
-        log.info("🟢 Usuario {} inscrito en el Evento Especial {}",
-                user.getIdUser(), specialEvent.getIdSpecialEvent());
+        log.info("🟢 Usuario {} confirmó su lugar en el Evento Especial {}",
+                user.idUser(), specialEvent.getIdSpecialEvent());
+    }
+
+    /**
+     * Apartado del usuario bloqueado para consumirlo, o null si no tiene.
+     * Solo se bloquea la fila cuando existe (ver {@link SpecialEventHoldRepository#findIdBySpecialEventAndUser}).
+     */
+    private SpecialEventHold lockHold(Long idSpecialEvent, Long idUser) {
+        return specialEventHoldRepository.findIdBySpecialEventAndUser(idSpecialEvent, idUser)
+                .flatMap(specialEventHoldRepository::findLockedById)
+                .orElse(null);
+    }
+
+    private boolean isExpired(SpecialEventHold hold) {
+        return hold.getExpiresAt().isBefore(LocalDateTime.now());
+    }
+
+    /**
+     * Libera en línea un apartado vencido que el barrido aún no procesó: elimina el apartado,
+     * restaura sus cupos y los ofrece primero a la lista de espera (FIFO).
+     */
+    private void releaseExpiredHold(SpecialEventHold hold) {
+        Long idSpecialEvent = hold.getSpecialEvent().getIdSpecialEvent();
+
+        specialEventHoldRepository.delete(hold);
+        reservationService.release(idSpecialEvent, hold.getSlots());
+        reservationService.promoteWaitlist(idSpecialEvent);
+
+        log.info("🟡 Apartado vencido del usuario {} liberado en el evento especial {}",
+                hold.getUser().getIdUser(), idSpecialEvent);
+    }
+
+    /**
+     * Forma al usuario en la lista de espera del evento (idempotente).
+     * Un reintento del mismo usuario no genera escrituras adicionales.
+     */
+    private void addToWaitlist(SpecialEvent specialEvent, SessionUser user) {
+        if (specialEventWaitlistRepository.existsBySpecialEventIdSpecialEventAndUserIdUser(
+                specialEvent.getIdSpecialEvent(), user.idUser())) {
+            return;
+        }
+
+        // Un reintento concurrente del mismo usuario choca con la restricción única y se ignora;
+        // cualquier otro error de integridad se propaga
+        try {
+            jdbcTemplate.update(INSERT_WAITLIST_SQL, specialEvent.getIdSpecialEvent(), user.idUser(),
+                    Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            return;
+        }
+
+        log.info("🟡 Usuario {} agregado a la lista de espera del Evento Especial {}",
+                user.idUser(), specialEvent.getIdSpecialEvent());
     }
 
     /**
@@ -259,69 +494,45 @@ public class SpecialEventService {
     @Transactional(readOnly = true)
     public List<SpecialEventsListDTO> findMySpecialEvents() {
 
-        User user = utilService.userInSession();
-        if (user == null) {
+        Long idUser = utilService.userIdInSession();
+        if (idUser == null) {
             throw new IllegalStateException("Usuario no autenticado");
         }
 
         List<SpecialEventMember> memberships =
                 specialEventMemberRepository.findByUserIdUserAndRole(
-                        user.getIdUser(),
+                        idUser,
                         GroupRole.MEMBER
                 );
 
         return memberships.stream()
-                .map(member -> {
-                    SpecialEvent specialEvent = member.getSpecialEvent();
-                    return SpecialEventsListDTO.builder()
-                            .idSpecialEvent(specialEvent.getIdSpecialEvent())
-                            .name(specialEvent.getName())
-                            .address(specialEvent.getAddress())
-                            .phone(specialEvent.getPhone())
-                            .dayOfWeek(specialEvent.getDayOfWeek().name())
-                            .hour(specialEvent.getHour())
-                            .numberOfSlots(specialEvent.getNumberOfSlots())
-                            .slotsRemaining(specialEvent.getSlotsRemaining())
-                            .build();
-                })
+                .map(member -> CatalogMapper.toListDTO(member.getSpecialEvent()))
                 .toList();
     }
 
+    /**
+     * Obtiene el detalle de un evento especial con sus miembros.
+     *
+     * Consideraciones:
+     * - Los miembros se obtienen con una sola proyección JPQL
+     * - Los miembros pueden paginarse; con Pageable.unpaged() se devuelven todos.
+     *   hasMoreMembers indica si hay más miembros después de la página
+     *
+     * @param groupId     ID del evento especial
+     * @param membersPage paginación aplicada a la lista de miembros
+     */
     @Transactional(readOnly = true)
-    public SpecialEventsDetailDTO findDetailById(Long groupId)
+    public SpecialEventsDetailDTO findDetailById(Long groupId, Pageable membersPage)
             throws ModelNotFoundException {
 
         SpecialEvent specialEvent = specialEventRepository.findById(groupId)
                 .orElseThrow(() -> new ModelNotFoundException(Worship.class, groupId));
 
-
         // Miembros
-        List<SpecialEventsUserDTO> members = specialEvent.getMembers().stream()
-                .filter(m -> m.getRole() == GroupRole.MEMBER)
-                .map(m -> mapToSpecialEventUserDTO(m.getUser()))
-                .toList();
+        Slice<SpecialEventsUserDTO> members = specialEventMemberRepository
+                .findUsersBySpecialEventAndRole(groupId, GroupRole.MEMBER, membersPage);
 
-        return SpecialEventsDetailDTO.builder()
-                .idSpecialEvent(specialEvent.getIdSpecialEvent())
-                .name(specialEvent.getName())
-                .address(specialEvent.getAddress())
-                .phone(specialEvent.getPhone())
-                .hour(specialEvent.getHour())
-                .members(members)
-                .numberOfSlots(specialEvent.getNumberOfSlots())
-                .slotsRemaining(specialEvent.getSlotsRemaining())
-                .build();
-    }
-
-    private SpecialEventsUserDTO mapToSpecialEventUserDTO(User user) {
-        return SpecialEventsUserDTO.builder()
-                .age(user.getAge())
-                .names(user.getNames())
-                .phone(user.getPhone())
-                .paternalSurname(user.getPaternalSurname())
-                .maternalSurname(user.getMaternalSurname())
-                .residencyCity(user.getResidencyCity())
-                .build();
+        return CatalogMapper.toDetailDTO(specialEvent, members);
     }
 
     /**
@@ -336,7 +547,7 @@ public class SpecialEventService {
     @Transactional
     public void leaveSpecialEvent(Long idSpecialEvent) throws ModelNotFoundException {
 
-        User user = utilService.userInSession();
+        SessionUser user = utilService.sessionUser();
 
         SpecialEvent specialEvent = specialEventRepository.findById(idSpecialEvent)
                 .orElseThrow(() ->
@@ -347,46 +558,56 @@ public class SpecialEventService {
         SpecialEventMember membership = specialEventMemberRepository
                 .findBySpecialEventIdSpecialEventAndUserIdUserAndRole(
                         specialEvent.getIdSpecialEvent(),
-                        user.getIdUser(),
+                        user.idUser(),
                         GroupRole.MEMBER
                 )
                 .orElse(null);
 
-        // Idempotencia: si no está inscrito, no hacemos nada
+        // Idempotencia: si no está inscrito, no hacemos nada (salvo liberar su apartado o salir de la lista de espera)
         if (membership == null) {
+            SpecialEventHold hold = lockHold(specialEvent.getIdSpecialEvent(), user.idUser());
+            if (hold != null) {
+                specialEventHoldRepository.delete(hold);
+                reservationService.release(specialEvent.getIdSpecialEvent(), hold.getSlots());
+                reservationService.promoteWaitlist(specialEvent.getIdSpecialEvent());
+                log.info("Usuario {} liberó su apartado en el evento especial {}",
+                        user.idUser(), specialEvent.getIdSpecialEvent());
+            }
+            specialEventWaitlistRepository
+                    .findBySpecialEventIdSpecialEventAndUserIdUser(specialEvent.getIdSpecialEvent(), user.idUser())
+                    .ifPresent(entry -> {
+                        specialEventWaitlistRepository.delete(entry);
+                        log.info("Usuario {} salió de la lista de espera del evento especial {}",
+                                user.idUser(), specialEvent.getIdSpecialEvent());
+                    });
             log.info(
                     "Usuario {} no está inscrito como MEMBER en el evento especial {}",
-                    user.getIdUser(),
+                    user.idUser(),
                     specialEvent.getIdSpecialEvent()
             );
             return;
         }
 
-        // Cupos que este usuario ocupó
-        int slotsToRestore = (user.getNumberDependents() != null
-                ? user.getNumberDependents()
-                : 0) + 1;
-
-        // Restauramos cupos sin pasar el máximo permitido
-        int updatedSlots = specialEvent.getSlotsRemaining() + slotsToRestore;
-
-        if (updatedSlots > specialEvent.getNumberOfSlots()) {
-            updatedSlots = specialEvent.getNumberOfSlots();
-        }
+        // Cupos que se descontaron al inscribirse; los dependientes pudieron cambiar desde entonces
+        int slotsToRestore = membership.getSlots() != null
+                ? membership.getSlots()
+                : reservationService.slotsRequired(user.numberDependents());
 
         // Eliminamos la relación
         specialEventMemberRepository.delete(membership);
 
-        // Actualizamos cupos
-        specialEvent.setSlotsRemaining(updatedSlots);
-        specialEventRepository.save(specialEvent);
+        // Restauramos cupos de forma atómica sin pasar el máximo permitido
+        reservationService.release(specialEvent.getIdSpecialEvent(), slotsToRestore);
+
+        // Los cupos liberados se asignan a la lista de espera en la misma transacción
+        int promoted = reservationService.promoteWaitlist(specialEvent.getIdSpecialEvent());
 
         log.info(
-                "🔴 Usuario {} salió del evento especial {} | Cupos restaurados: {} | Disponibles: {}",
-                user.getIdUser(),
+                "🔴 Usuario {} salió del evento especial {} | Cupos restaurados: {} | Promovidos de lista de espera: {}",
+                user.idUser(),
                 specialEvent.getIdSpecialEvent(),
                 slotsToRestore,
-                updatedSlots
+                promoted
         );
     }
 
@@ -402,9 +623,9 @@ public class SpecialEventService {
     @Transactional
     public void deleteSpecialEvent(Long idSpecialEvent) throws ModelNotFoundException {
 
-        User admin = utilService.userInSession();
+        SessionUser admin = utilService.sessionUser();
 
-        if (!admin.getSimpleAuthorities().contains(Authority.ADMIN)) {
+        if (!admin.hasAuthority(Authority.ADMIN)) {
             throw new IllegalStateException("No autorizado para eliminar eventos Especialess");
         }
 
@@ -414,9 +635,10 @@ public class SpecialEventService {
                 );
 
         specialEventRepository.delete(specialEvent);
+        catalogVersionService.invalidate(Catalog.SPECIAL_EVENTS);
 
         log.info("🔴 Evento Especial {} eliminado por el administrador {}",
-                specialEvent.getIdSpecialEvent(), admin.getIdUser());
+                specialEvent.getIdSpecialEvent(), admin.idUser());
     }
 
 
@@ -0,0 +1,142 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.AppConfig;
+import com.revoktek.services.model.User;
+import com.revoktek.services.model.UserDependents;
+import com.revoktek.services.model.dto.users.SessionUser;
+import com.revoktek.services.model.dto.users.UserDependentsDTO;
+import com.revoktek.services.model.enums.Authority;
+import com.revoktek.services.repository.AppConfigRepository;
+import com.revoktek.services.repository.UserDependentsRepository;
+import com.revoktek.services.repository.UserRepository;
+import com.revoktek.services.rulesException.ModelNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lectura y actualización de los dependientes de un usuario (tabla user_dependents).
+ *
+ * Consideraciones:
+ * - El texto de dependientes ya no forma parte de la entidad User, por lo que no se carga
+ *   en el login, en la sesión ni en los listados de miembros
+ * - numberDependents se mantiene en users porque lo usan las reservaciones de eventos
+ * - Solo el propio usuario o un ADMIN pueden leer o modificar sus dependientes
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class UserDependentsService {
+
+    private static final String MIGRATION_KEY = "USER_DEPENDENTS_MIGRATED";
+
+    private final UserDependentsRepository userDependentsRepository;
+    private final UserRepository userRepository;
+    private final AppConfigRepository appConfigRepository;
+    private final UtilService utilService;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Obtiene los dependientes de un usuario.
+     *
+     * @param idUser ID del usuario
+     * @return dependientes (null si nunca se registraron) y su número
+     * @throws ModelNotFoundException si el usuario no existe
+     * @throws IllegalStateException  si el usuario en sesión no es el dueño ni ADMIN
+     */
+    @Transactional(readOnly = true)
+    public UserDependentsDTO findByUser(Long idUser) throws ModelNotFoundException {
+        checkOwnerOrAdmin(idUser, "consultar");
+
+        User user = userRepository.findById(idUser)
+                .orElseThrow(() -> new ModelNotFoundException(User.class, idUser));
+
+        String dependents = userDependentsRepository.findById(idUser)
+                .map(UserDependents::getDependents)
+                .orElse(null);
+
+        return new UserDependentsDTO(idUser, dependents, user.getNumberDependents());
+    }
+
+    /**
+     * Actualiza los dependientes de un usuario. Los valores null no se modifican.
+     *
+     * @param idUser           ID del usuario
+     * @param dependents       (Opcional) Información de dependientes
+     * @param numberDependents (Opcional) Número de dependientes
+     * @throws ModelNotFoundException si el usuario no existe
+     * @throws IllegalStateException  si el usuario en sesión no es el dueño ni ADMIN
+     */
+    @Transactional
+    public void update(Long idUser, String dependents, Integer numberDependents) throws ModelNotFoundException {
+        checkOwnerOrAdmin(idUser, "modificar");
+
+        User user = userRepository.findById(idUser)
+                .orElseThrow(() -> new ModelNotFoundException(User.class, idUser));
+
+        if (dependents != null) {
+            saveDependents(user, dependents);
+        }
+
+        if (numberDependents != null) {
+            user.setNumberDependents(numberDependents);
+            userRepository.save(user);
+            utilService.evictUserInSession(user.getUsername());
+        }
+
+        log.info("🟡 Dependientes del usuario {} actualizados", idUser);
+    }
+
+    private void checkOwnerOrAdmin(Long idUser, String action) {
+        SessionUser user = utilService.sessionUser();
+
+        if (!user.idUser().equals(idUser) && !user.hasAuthority(Authority.ADMIN)) {
+            throw new IllegalStateException("No autorizado para " + action + " los dependientes de otro usuario");
+        }
+    }
+
+    /**
+     * Crea o reemplaza el registro de dependientes del usuario (que ya debe estar persistido).
+     */
+    void saveDependents(User user, String dependents) {
+        UserDependents userDependents = userDependentsRepository.findById(user.getIdUser())
+                .orElseGet(() -> UserDependents.builder().user(user).build());
+        userDependents.setDependents(dependents);
+        userDependentsRepository.save(userDependents);
+    }
+
+    /**
+     * Copia una sola vez los dependientes de la antigua columna users.dependents a user_dependents.
+     *
+     * Este método se ejecuta al arranque de la aplicación y:
+     * - Se omite si ya se realizó (marca USER_DEPENDENTS_MIGRATED en AppConfig)
+     * - Se omite si la columna antigua no existe (base de datos nueva)
+     * - No sobrescribe registros que ya existan en user_dependents
+     * - La columna antigua no se elimina; ya no está mapeada y puede borrarse manualmente
+     */
+    @Transactional
+    public void migrateLegacyDependents() {
+
+        if (appConfigRepository.existsByConfigKey(MIGRATION_KEY)) {
+            return;
+        }
+
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'dependents'",
+                Integer.class);
+
+        if (legacyColumns != null && legacyColumns > 0) {
+            int migrated = jdbcTemplate.update(
+                    "INSERT INTO user_dependents (user_id, dependents) "
+                            + "SELECT u.id_user, u.dependents FROM users u "
+                            + "WHERE u.dependents IS NOT NULL "
+                            + "AND NOT EXISTS (SELECT 1 FROM user_dependents d WHERE d.user_id = u.id_user)");
+            log.info("🟢 {} registros de dependientes migrados a user_dependents", migrated);
+        }
+
+        appConfigRepository.save(new AppConfig(MIGRATION_KEY, "true"));
+    }
+}
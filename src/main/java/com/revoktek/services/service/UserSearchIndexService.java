@@ -0,0 +1,137 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.AppConfig;
+import com.revoktek.services.repository.AppConfigRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Preparación de las columnas de búsqueda normalizadas de users (search_*).
+ *
+ * Este proceso se ejecuta una sola vez al arranque (marca USER_SEARCH_KEYS_INITIALIZED) y:
+ * - Calcula las llaves de los usuarios existentes; los nuevos y los editados las obtienen
+ *   de UserSearchKeysListener
+ * - Crea un índice FULLTEXT con parser ngram por columna para las búsquedas "contiene"
+ *   (los índices B-tree para prefijo los declara la entidad User)
+ *
+ * Consideraciones:
+ * - Los índices se crean sin stopwords (innodb_ft_enable_stopword = 0 en la sesión):
+ *   con ngram, la lista por defecto descartaría bigramas como "de" o "la" de los apellidos;
+ *   al terminar se restaura el valor que tenía la sesión
+ * - No usa transacción: en MySQL los CREATE INDEX hacen commit implícito
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class UserSearchIndexService {
+
+    private static final String INITIALIZED_KEY = "USER_SEARCH_KEYS_INITIALIZED";
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private static final List<String> SEARCH_COLUMNS = List.of(
+            "search_username",
+            "search_names",
+            "search_paternal_surname",
+            "search_maternal_surname",
+            "search_residency_city");
+
+    private final AppConfigRepository appConfigRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void initializeSearchKeys() {
+
+        if (appConfigRepository.existsByConfigKey(INITIALIZED_KEY)) {
+            return;
+        }
+
+        int updated = backfillSearchKeys();
+        log.info("🟢 Llaves de búsqueda calculadas para {} usuarios", updated);
+
+        for (String column : SEARCH_COLUMNS) {
+            createFullTextIndex(column);
+        }
+
+        appConfigRepository.save(new AppConfig(INITIALIZED_KEY, "true"));
+    }
+
+    /**
+     * Recorre users por lotes (paginación por id) y guarda las llaves normalizadas.
+     */
+    private int backfillSearchKeys() {
+        long lastId = 0;
+        int total = 0;
+
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id_user, username, names, paternal_surname, maternal_surname, residency_city "
+                            + "FROM users WHERE id_user > ? ORDER BY id_user LIMIT ?",
+                    (rs, rowNum) -> new Object[]{
+                            rs.getLong(1),
+                            UserSearchKeysListener.key(rs.getString(2)),
+                            UserSearchKeysListener.key(rs.getString(3)),
+                            UserSearchKeysListener.key(rs.getString(4)),
+                            UserSearchKeysListener.key(rs.getString(5)),
+                            UserSearchKeysListener.key(rs.getString(6))
+                    },
+                    lastId, BACKFILL_BATCH_SIZE);
+
+            if (rows.isEmpty()) {
+                return total;
+            }
+
+            jdbcTemplate.batchUpdate(
+                    "UPDATE users SET search_username = ?, search_names = ?, search_paternal_surname = ?, "
+                            + "search_maternal_surname = ?, search_residency_city = ? WHERE id_user = ?",
+                    rows, rows.size(), (ps, row) -> {
+                        ps.setString(1, (String) row[1]);
+                        ps.setString(2, (String) row[2]);
+                        ps.setString(3, (String) row[3]);
+                        ps.setString(4, (String) row[4]);
+                        ps.setString(5, (String) row[5]);
+                        ps.setLong(6, (Long) row[0]);
+                    });
+
+            total += rows.size();
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    private void createFullTextIndex(String column) {
+        String indexName = "ft_users_" + column;
+
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = ?",
+                Integer.class, indexName);
+        if (existing != null && existing > 0) {
+            return;
+        }
+
+        // Misma conexión para el SET SESSION y el CREATE INDEX
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                int previousStopword;
+                try (ResultSet resultSet = statement.executeQuery("SELECT @@SESSION.innodb_ft_enable_stopword")) {
+                    resultSet.next();
+                    previousStopword = resultSet.getInt(1);
+                }
+                statement.execute("SET SESSION innodb_ft_enable_stopword = 0");
+                try {
+                    statement.execute("CREATE FULLTEXT INDEX " + indexName + " ON users (" + column + ") WITH PARSER ngram");
+                } finally {
+                    // la conexión regresa al pool con el valor que tenía
+                    statement.execute("SET SESSION innodb_ft_enable_stopword = " + previousStopword);
+                }
+            }
+            return null;
+        });
+        log.info("🟢 Índice FULLTEXT {} creado", indexName);
+    }
+}
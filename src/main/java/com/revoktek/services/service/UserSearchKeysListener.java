@@ -0,0 +1,31 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.model.User;
+import com.revoktek.services.utils.SearchUtil;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Entity listener que mantiene las columnas search_* de {@link User}.
+ *
+ * Consideraciones:
+ * - Cada columna guarda el valor normalizado con {@link SearchUtil#fold} (minúsculas, sin acentos)
+ * - Las búsquedas de administración comparan contra estas columnas, que tienen índice,
+ *   en lugar de aplicar LOWER() sobre la columna original en cada fila
+ */
+public class UserSearchKeysListener {
+
+    @PrePersist
+    @PreUpdate
+    public void updateSearchKeys(User user) {
+        user.setSearchUsername(key(user.getUsername()));
+        user.setSearchNames(key(user.getNames()));
+        user.setSearchPaternalSurname(key(user.getPaternalSurname()));
+        user.setSearchMaternalSurname(key(user.getMaternalSurname()));
+        user.setSearchResidencyCity(key(user.getResidencyCity()));
+    }
+
+    static String key(String value) {
+        return value == null ? null : SearchUtil.fold(value);
+    }
+}
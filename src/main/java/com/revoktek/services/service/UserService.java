@@ -1,11 +1,13 @@
 package com.revoktek.services.service;
 
 import com.revoktek.services.model.User;
+import com.revoktek.services.model.dto.users.UserDirectoryDTO;
+import com.revoktek.services.model.dto.users.UserDirectoryPageDTO;
+import com.revoktek.services.model.dto.users.UserDirectoryView;
 import com.revoktek.services.model.dto.users.UserSaveDTO;
 import com.revoktek.services.model.enums.Authority;
-import com.revoktek.services.model.logs.LoginLog;
+import com.revoktek.services.model.enums.Catalog;
 import com.revoktek.services.repository.UserRepository;
-import com.revoktek.services.repository.logs.LoginLogRepository;
 import com.revoktek.services.rulesException.DuplicateModelException;
 import com.revoktek.services.rulesException.ModelNotFoundException;
 import com.revoktek.services.specification.UserSpecification;
@@ -14,6 +16,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -21,18 +25,23 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 
 @RequiredArgsConstructor
 @Service
 @Log4j2
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 100;
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
-    private final LoginLogRepository loginLogRepository;
+    private final LoginLogWriter loginLogWriter;
     private final UtilService utilService;
+    private final CatalogVersionService catalogVersionService;
+    private final UserDependentsService userDependentsService;
 
 
     @Override
@@ -43,6 +52,24 @@ public class UserService implements UserDetailsService {
         return user;
     }
 
+    /**
+     * Guarda la contraseña recodificada cuando aumenta el costo de BCrypt configurado.
+     * Spring Security la invoca tras un login exitoso si el hash actual usa un costo menor.
+     *
+     * @param user        usuario autenticado
+     * @param newPassword contraseña ya codificada con el costo vigente
+     * @return usuario con la contraseña actualizada
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByUsername(user.getUsername());
+        entity.setPassword(newPassword);
+        User saved = userRepository.save(entity);
+        utilService.evictUserInSession(saved.getUsername());
+        log.info("🟡 Contraseña recodificada con el costo de BCrypt vigente para {}", entity.getUsername());
+        return saved;
+    }
+
     public User save(User user) {
         if (user.getPassword() != null)
             user.setPassword(bCryptPasswordEncoder.encode(user.getPassword()));
@@ -62,22 +89,26 @@ public class UserService implements UserDetailsService {
 
         user.setEnabled(!user.isEnabled());
         userRepository.save(user);
+        utilService.evictUserInSession(user.getUsername());
 
         String estatus = user.isEnabled() ? "habilitado" : "deshabilitado";
         log.info("🟡 Usuario con ID {} está {}", id, estatus);
         return estatus;
     }
 
+    /**
+     * Registra el inicio de sesión en la bitácora.
+     * La escritura es asíncrona (LoginLogWriter) para no alargar la respuesta del login.
+     */
     public void logLogin(User user, HttpServletRequest request) {
-        LoginLog loginLog = new LoginLog();
-        loginLog.setUser(user);
-        loginLog.setUsername(user.getUsername());
-        loginLog.setLoginTime(LocalDateTime.now(LocaleUtil.defaultZoneId));
-        loginLog.setIpAddress(request.getRemoteAddr());
-        loginLog.setUserAgent(request.getHeader("User-Agent"));
-        loginLog.setAuthenticated(true);
         log.info("User: {} is logged from: {}", user.getUsername(), request.getRemoteAddr());
-        loginLogRepository.save(loginLog);
+        loginLogWriter.enqueue(
+                user.getIdUser(),
+                user.getUsername(),
+                LocalDateTime.now(LocaleUtil.defaultZoneId),
+                request.getRemoteAddr(),
+                request.getHeader("User-Agent")
+        );
     }
 
     public boolean notExistsByUsername(String username) {
@@ -108,6 +139,7 @@ public class UserService implements UserDetailsService {
      *
      * @throws IllegalArgumentException si el rol proporcionado no coincide con ningún valor del enum {@link Authority}
      */
+    @Transactional
     public void save(UserSaveDTO dto) throws DuplicateModelException {
         if (!notExistsByUsername(dto.getUsername())) {
             throw new DuplicateModelException(User.class, dto.getUsername(), "username");
@@ -122,13 +154,16 @@ public class UserService implements UserDetailsService {
                 .paternalSurname(dto.getPaternalSurname())
                 .maternalSurname(dto.getMaternalSurname())
                 .residencyCity(dto.getResidenceCity())
-                .dependents(dto.getDependents())
                 .numberDependents(dto.getNumberDependents())
                 .authorities(List.of(Authority.valueOf(dto.getRole())))
                 .build();
         user.setUserRegister(utilService.userNameInSession() != null ? utilService.userNameInSession() : null);
         userRepository.save(user);
 
+        if (dto.getDependents() != null) {
+            userDependentsService.saveDependents(user, dto.getDependents());
+        }
+
         log.info("Usuario registrado con exito con el nombre de usuario " + dto.getUsername());
     }
 
@@ -155,6 +190,8 @@ public class UserService implements UserDetailsService {
      * @param residencyCity   (Opcional) Filtro por ciudad de residencia (contiene).
      * @param age             (Opcional) Filtro por edad.
      * @param enabled         (Opcional) Filtro por estado habilitado.
+     * @param prefix          True para que los filtros de texto coincidan por prefijo (índice B-tree);
+     *                        false para "contiene" (índice FULLTEXT). Sin distinguir acentos ni mayúsculas.
      * @param pageable        Información de paginación.
      * @return Página de usuarios filtrada y paginada.
      */
@@ -167,20 +204,73 @@ public class UserService implements UserDetailsService {
             String residencyCity,
             Integer age,
             Boolean enabled,
+            boolean prefix,
             Pageable pageable) {
 
         Specification<User> spec = Specification.where(UserSpecification.hasAuthority(authority))
-                .and(UserSpecification.usernameLike(username))
-                .and(UserSpecification.namesLike(names))
-                .and(UserSpecification.paternalSurnameLike(paternalSurname))
-                .and(UserSpecification.maternalSurnameLike(maternalSurname))
-                .and(UserSpecification.residencyCityLike(residencyCity))
+                .and(UserSpecification.usernameLike(username, prefix))
+                .and(UserSpecification.namesLike(names, prefix))
+                .and(UserSpecification.paternalSurnameLike(paternalSurname, prefix))
+                .and(UserSpecification.maternalSurnameLike(maternalSurname, prefix))
+                .and(UserSpecification.residencyCityLike(residencyCity, prefix))
                 .and(UserSpecification.hasAge(age))
                 .and(UserSpecification.isEnabled(enabled));
 
         return userRepository.findAll(spec, pageable);
     }
 
+    /**
+     * Obtiene una página del directorio de usuarios (vista plana para administración).
+     *
+     * Consideraciones:
+     * - Solo ADMIN puede consultar el directorio
+     * - Una sola consulta nativa: datos básicos y roles agregados en SQL, sin cargar entidades
+     * - Paginación por cursor (idUser descendente): el costo no crece con el número de página
+     * - El total es opcional porque requiere recorrer todos los usuarios que cumplen el filtro
+     *
+     * @param authority (Opcional) Filtro por rol del usuario.
+     * @param enabled   (Opcional) Filtro por estado habilitado.
+     * @param afterId   (Opcional) Cursor: nextCursor de la página anterior.
+     * @param size      Tamaño de la página (máximo 100).
+     * @param withCount true para calcular el total de usuarios.
+     * @return Página del directorio con el cursor de la siguiente.
+     * @throws IllegalStateException si el usuario en sesión no es ADMIN
+     */
+    @Transactional(readOnly = true)
+    public UserDirectoryPageDTO findDirectory(Authority authority, Boolean enabled, Long afterId,
+                                              int size, boolean withCount) {
+        if (!utilService.sessionUser().hasAuthority(Authority.ADMIN)) {
+            throw new IllegalStateException("No autorizado para consultar el directorio de usuarios");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_DIRECTORY_PAGE_SIZE));
+        String authorityName = authority != null ? authority.name() : null;
+
+        // Se pide una fila extra solo para saber si existe una página siguiente
+        List<UserDirectoryView> rows = userRepository.findDirectory(afterId, authorityName, enabled, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<UserDirectoryDTO> content = rows.stream()
+                .map(row -> new UserDirectoryDTO(
+                        row.getIdUser(),
+                        row.getUsername(),
+                        row.getNames(),
+                        row.getPaternalSurname(),
+                        row.getMaternalSurname(),
+                        row.getResidencyCity(),
+                        row.getEnabled(),
+                        row.getAuthorities() == null ? List.of() : List.of(row.getAuthorities().split(","))))
+                .toList();
+
+        Long nextCursor = hasNext ? content.get(content.size() - 1).getIdUser() : null;
+        Long total = withCount ? userRepository.countDirectory(authorityName, enabled) : null;
+
+        return new UserDirectoryPageDTO(content, nextCursor, total);
+    }
+
     /**
      * Actualiza los datos de negocio de un usuario existente.
      * <p>
@@ -216,6 +306,8 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() ->
                         new IllegalArgumentException("User with ID " + idUser + " not found"));
 
+        String previousUsername = user.getUsername();
+
         // 2. Actualizar username (validando duplicados)
         if (username != null && !username.equals(user.getUsername())) {
             if (userRepository.existsByUsername(username)) {
@@ -252,9 +344,9 @@ public class UserService implements UserDetailsService {
             user.setResidencyCity(residenceCity);
         }
 
-        // 7. Dependientes
+        // 7. Dependientes (tabla user_dependents)
         if (dependents != null) {
-            user.setDependents(dependents);
+            userDependentsService.saveDependents(user, dependents);
         }
 
         if (numberDependents != null) {
@@ -263,6 +355,13 @@ public class UserService implements UserDetailsService {
 
         // 8. Guardar cambios
         userRepository.save(user);
+        utilService.evictUserInSession(previousUsername);
+        utilService.evictUserInSession(user.getUsername());
+
+        // El nombre de los instructores aparece en la búsqueda pública de grupos
+        if (names != null || paternalSurname != null || maternalSurname != null) {
+            catalogVersionService.invalidate(Catalog.GROUPS);
+        }
 
         log.info("🟡 Usuario {} (ID: {}) actualizado con éxito", user.getUsername(), user.getIdUser());
     }
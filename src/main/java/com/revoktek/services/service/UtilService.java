@@ -2,16 +2,23 @@ package com.revoktek.services.service;
 
 
 import com.revoktek.services.model.User;
+import com.revoktek.services.model.dto.users.SessionUser;
 import com.revoktek.services.model.enums.Authority;
 import com.revoktek.services.repository.UserRepository;
 import com.revoktek.services.rulesException.EnumInvalidArgumentException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.io.UnsupportedEncodingException;
+import java.time.DayOfWeek;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Servicio utilitario para operaciones comunes relacionadas con el usuario en sesión
@@ -22,11 +29,29 @@ import java.io.UnsupportedEncodingException;
  * </p>
  */
 @Service
-@RequiredArgsConstructor
 @Log4j2
 public class UtilService {
 
+    private static final String USER_IN_SESSION_ATTRIBUTE = UtilService.class.getName() + ".userInSession";
+    private static final String SESSION_USER_ATTRIBUTE = UtilService.class.getName() + ".sessionUser";
+
     private final UserRepository userRepository;
+    // LRU acotado con vigencia por entrada; solo guarda instantáneas inmutables (SessionUser)
+    private final Map<String, CachedSessionUser> sessionUsers;
+    private final long sessionUserTtlMillis;
+
+    public UtilService(UserRepository userRepository,
+                       @Value("${session.userCache.maxEntries:10000}") int sessionUserMaxEntries,
+                       @Value("${session.userCache.ttlSeconds:60}") long sessionUserTtlSeconds) {
+        this.userRepository = userRepository;
+        this.sessionUserTtlMillis = sessionUserTtlSeconds * 1000;
+        this.sessionUsers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSessionUser> eldest) {
+                return size() > sessionUserMaxEntries;
+            }
+        };
+    }
 
     /**
      * Obtiene el usuario actualmente autenticado en el contexto de seguridad.
@@ -34,6 +59,11 @@ public class UtilService {
      * Retorna el usuario más recientemente registrado que coincida con el nombre de usuario
      * autenticado en el SecurityContext.
      * </p>
+     * <p>
+     * La entidad se consulta una vez por petición y se reutiliza solo dentro de ella; no se comparte
+     * entre peticiones. Las rutas frecuentes que solo necesitan el ID, los roles o el número de
+     * dependientes deben usar {@link #sessionUser()}.
+     * </p>
      *
      * @return Usuario en sesión, o {@code null} si no hay autenticación o no se encuentra el usuario.
      */
@@ -41,14 +71,135 @@ public class UtilService {
         if (SecurityContextHolder.getContext().getAuthentication() == null)
             return null;
         String username = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(USER_IN_SESSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User requestUser
+                && username.equals(requestUser.getUsername())) {
+            return requestUser;
+        }
+
         User user = userRepository.findFirstByUsernameOrderByDateRegisterDesc(username);
         if (user == null) {
             log.warn("No se encontró usuario con username '{}' en la base de datos", username);
             return null;
         }
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(USER_IN_SESSION_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
         return user;
     }
 
+    /**
+     * Obtiene una instantánea inmutable del usuario autenticado (ID, username, roles,
+     * número de dependientes y estado).
+     * <p>
+     * Se reutiliza durante la petición y, entre peticiones, se conserva en una caché LRU acotada
+     * (session.userCache.maxEntries) con vigencia corta (session.userCache.ttlSeconds).
+     * {@link #evictUserInSession(String)} la invalida cuando el usuario cambia en este nodo;
+     * en otros nodos el cambio se refleja al vencer la vigencia.
+     * </p>
+     *
+     * @return Usuario en sesión, o {@code null} si no hay autenticación o no se encuentra el usuario.
+     */
+    public SessionUser sessionUser() {
+        if (SecurityContextHolder.getContext().getAuthentication() == null)
+            return null;
+        String username = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(SESSION_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof SessionUser requestUser
+                && username.equals(requestUser.username())) {
+            return requestUser;
+        }
+
+        SessionUser sessionUser = null;
+        synchronized (sessionUsers) {
+            CachedSessionUser cached = sessionUsers.get(username);
+            if (cached != null && cached.isExpired()) {
+                sessionUsers.remove(username);
+            } else if (cached != null) {
+                sessionUser = cached.user();
+            }
+        }
+
+        if (sessionUser == null) {
+            User user = userRepository.findFirstByUsernameOrderByDateRegisterDesc(username);
+            if (user == null) {
+                log.warn("No se encontró usuario con username '{}' en la base de datos", username);
+                return null;
+            }
+            sessionUser = SessionUser.of(user);
+            CachedSessionUser entry = new CachedSessionUser(sessionUser, System.currentTimeMillis() + sessionUserTtlMillis);
+            synchronized (sessionUsers) {
+                sessionUsers.put(username, entry);
+            }
+        }
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(SESSION_USER_ATTRIBUTE, sessionUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return sessionUser;
+    }
+
+    /**
+     * Referencia al usuario autenticado para asignarlo en relaciones (GroupMember, etc.)
+     * sin consultar la entidad completa.
+     *
+     * @return referencia perezosa al usuario en sesión, o {@code null} si no hay autenticación.
+     */
+    public User userReferenceInSession() {
+        SessionUser sessionUser = sessionUser();
+        return sessionUser != null ? userRepository.getReferenceById(sessionUser.idUser()) : null;
+    }
+
+    /**
+     * Obtiene el ID del usuario autenticado directamente desde los claims del token,
+     * sin consultar la base de datos.
+     * <p>
+     * Los tokens emitidos antes de incluir el claim idUser recurren a {@link #sessionUser()}.
+     * </p>
+     *
+     * @return ID del usuario en sesión, o {@code null} si no hay autenticación.
+     */
+    public Long userIdInSession() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null)
+            return null;
+        if (auth.getDetails() instanceof Long idUser)
+            return idUser;
+        SessionUser sessionUser = sessionUser();
+        return sessionUser != null ? sessionUser.idUser() : null;
+    }
+
+    /**
+     * Descarta el usuario cacheado para el username indicado.
+     * Debe llamarse cuando cambian sus datos, su estado, su contraseña o sus permisos.
+     *
+     * @param username username del usuario modificado
+     */
+    public void evictUserInSession(String username) {
+        if (username == null)
+            return;
+        synchronized (sessionUsers) {
+            sessionUsers.remove(username);
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            if (requestAttributes.getAttribute(USER_IN_SESSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User requestUser
+                    && username.equals(requestUser.getUsername())) {
+                requestAttributes.removeAttribute(USER_IN_SESSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            }
+            if (requestAttributes.getAttribute(SESSION_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof SessionUser requestUser
+                    && username.equals(requestUser.username())) {
+                requestAttributes.removeAttribute(SESSION_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+    }
+
     /**
      * Obtiene el nombre de usuario (username) de la sesión actual.
      *
@@ -91,6 +242,27 @@ public class UtilService {
         }
     }
 
+    /**
+     * Convierte un valor {@code String} opcional en {@link DayOfWeek}.
+     * <p>
+     * La conversión es case-insensitive; un valor nulo o vacío se interpreta como "sin filtro".
+     * </p>
+     *
+     * @param value Cadena a convertir (puede ser nula).
+     * @return Día de la semana, o {@code null} si no se envió valor.
+     * @throws EnumInvalidArgumentException si el valor no corresponde a DayOfWeek.
+     */
+    public DayOfWeek parseDayOfWeek(String value) throws EnumInvalidArgumentException {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return DayOfWeek.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new EnumInvalidArgumentException("dayOfWeek", value, DayOfWeek.class);
+        }
+    }
+
     public String fixEncoding(String input) {
         if (input == null) return null;
         try {
@@ -101,6 +273,12 @@ public class UtilService {
         }
     }
 
+    private record CachedSessionUser(SessionUser user, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
 
 
 
@@ -1,22 +1,29 @@
 package com.revoktek.services.service;
 
+import com.revoktek.services.mapper.CatalogMapper;
 import com.revoktek.services.model.*;
 import com.revoktek.services.model.dto.memberWorkships.WorshipDetailDTO;
 import com.revoktek.services.model.dto.memberWorkships.WorshipUserDTO;
+import com.revoktek.services.model.dto.users.SessionUser;
 import com.revoktek.services.model.dto.workships.WorshipListDTO;
 import com.revoktek.services.model.dto.workships.WorshipSaveDTO;
 import com.revoktek.services.model.enums.Authority;
+import com.revoktek.services.model.enums.Catalog;
 import com.revoktek.services.model.enums.GroupRole;
 import com.revoktek.services.repository.WorshipMemberRepository;
 import com.revoktek.services.repository.WorshipRepository;
 import com.revoktek.services.rulesException.EnumInvalidArgumentException;
 import com.revoktek.services.rulesException.ModelNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Locale;
 
@@ -27,6 +34,7 @@ public class WorshipService {
     private final UtilService utilService;
     private final WorshipRepository worshipRepository;
     private final WorshipMemberRepository worshipMemberRepository;
+    private final CatalogVersionService catalogVersionService;
 
 
     /**
@@ -41,24 +49,22 @@ public class WorshipService {
      * - readOnly = true para evitar flush innecesarios
      * - Se retorna DTO en lugar de entidad para proteger el modelo
      * - dayOfWeek se expone como String para facilidad de consumo en frontend
+     * - Paginación y filtros se resuelven en SQL; solo se leen las columnas del listado
      *
-     * @return Lista de cultos en formato WorkshipListDTO
+     * @param name      (Opcional) Filtro por nombre (contiene)
+     * @param dayOfWeek (Opcional) Filtro por día de la semana
+     * @param hourFrom  (Opcional) Hora mínima
+     * @param hourTo    (Opcional) Hora máxima
+     * @param pageable  Información de paginación y orden
+     * @return Página de cultos en formato WorkshipListDTO
+     * @throws EnumInvalidArgumentException Si el valor de dayOfWeek no es válido
      */
     @Transactional(readOnly = true)
-    public List<WorshipListDTO> findAll() {
-
-        return worshipRepository.findAll()
-                .stream()
-                .map(workship -> WorshipListDTO.builder()
-                        .idWorship(workship.getIdWorship())
-                        .name(workship.getName())
-                        .address(workship.getAddress())
-                        .phone(workship.getPhone())
-                        .dayOfWeek(workship.getDayOfWeek().name())
-                        .hour(workship.getHour())
-                        .build()
-                )
-                .toList();
+    public Page<WorshipListDTO> findAll(String name, String dayOfWeek, LocalTime hourFrom, LocalTime hourTo,
+                                        Pageable pageable) throws EnumInvalidArgumentException {
+
+        return worshipRepository.findCatalog(name, utilService.parseDayOfWeek(dayOfWeek), hourFrom, hourTo, pageable)
+                .map(CatalogMapper::toListDTO);
     }
 
 
@@ -111,6 +117,7 @@ public class WorshipService {
 
         // Persistencia del culto
         worshipRepository.save(worship);
+        catalogVersionService.invalidate(Catalog.WORSHIPS);
 
         log.info("🟢 Culto registrado con éxito: {}", dto.getName());
     }
@@ -185,6 +192,7 @@ public class WorshipService {
         // 4️⃣ Persistencia
         // Hibernate detecta cambios automáticamente (dirty checking)
         worshipRepository.save(worship);
+        catalogVersionService.invalidate(Catalog.WORSHIPS);
 
         log.info("🟡 culto actualizado con éxito. ID: {}", workshipId);
     }
@@ -201,36 +209,30 @@ public class WorshipService {
      */
     @Transactional
     public void joinWorship(Long idWorkshhip) throws ModelNotFoundException {
-        User user = utilService.userInSession();
+        SessionUser user = utilService.sessionUser();
 
-        Worship worship = worshipRepository.findById(idWorkshhip)
-                .orElseThrow(() ->
-                        new ModelNotFoundException(Worship.class, idWorkshhip)
-                );
-
-        // Verificamos si ya está inscrito
-        boolean alreadyMember = worship.getMembers().stream()
-                .anyMatch(m ->
-                        m.getUser().getIdUser().equals(user.getIdUser())
-                );
+        if (!worshipRepository.existsById(idWorkshhip)) {
+            throw new ModelNotFoundException(Worship.class, idWorkshhip);
+        }
 
-        if (alreadyMember) {
+        // Verificamos si ya está inscrito (consulta de existencia, no se carga la colección de miembros)
+        if (worshipMemberRepository.existsByWorshipIdWorshipAndUserIdUser(idWorkshhip, user.idUser())) {
             log.info("Usuario {} ya está inscrito en el culto {}",
-                    user.getIdUser(), worship.getIdWorship());
+                    user.idUser(), idWorkshhip);
             return; // idempotente
         }
 
+        // Inserción directa de la relación; el culto se referencia sin consultarlo
         WorshipMember member = WorshipMember.builder()
-                .worship(worship)
-                .user(user)
+                .worship(worshipRepository.getReferenceById(idWorkshhip))
+                .user(utilService.userReferenceInSession())
                 .role(GroupRole.MEMBER)
                 .build();
 
-        worship.getMembers().add(member);
-        worshipRepository.save(worship);
+        worshipMemberRepository.save(member);
 
         log.info("🟢 Usuario {} inscrito en el culto {}",
-                user.getIdUser(), worship.getIdWorship());
+                user.idUser(), idWorkshhip);
     }
 
 
@@ -247,67 +249,46 @@ public class WorshipService {
     @Transactional(readOnly = true)
     public List<WorshipListDTO> findMyWorships() {
 
-        User user = utilService.userInSession();
-        if (user == null) {
+        Long idUser = utilService.userIdInSession();
+        if (idUser == null) {
             throw new IllegalStateException("Usuario no autenticado");
         }
 
         List<WorshipMember> memberships =
                 worshipMemberRepository.findByUserIdUserAndRole(
-                        user.getIdUser(),
+                        idUser,
                         GroupRole.MEMBER
                 );
 
         return memberships.stream()
-                .map(member -> {
-                    Worship worship = member.getWorship();
-                    return WorshipListDTO.builder()
-                            .idWorship(worship.getIdWorship())
-                            .name(worship.getName())
-                            .address(worship.getAddress())
-                            .phone(worship.getPhone())
-                            .dayOfWeek(worship.getDayOfWeek().name())
-                            .hour(worship.getHour())
-                            .build();
-                })
+                .map(member -> CatalogMapper.toListDTO(member.getWorship()))
                 .toList();
     }
 
 
+    /**
+     * Obtiene el detalle de un culto con sus miembros.
+     *
+     * Consideraciones:
+     * - Los miembros se obtienen con una sola proyección JPQL
+     * - Los miembros pueden paginarse; con Pageable.unpaged() se devuelven todos.
+     *   hasMoreMembers indica si hay más miembros después de la página
+     *
+     * @param groupId     ID del culto
+     * @param membersPage paginación aplicada a la lista de miembros
+     */
     @Transactional(readOnly = true)
-    public WorshipDetailDTO findDetailById(Long groupId)
+    public WorshipDetailDTO findDetailById(Long groupId, Pageable membersPage)
             throws ModelNotFoundException {
 
         Worship worship = worshipRepository.findById(groupId)
                 .orElseThrow(() -> new ModelNotFoundException(Worship.class, groupId));
-        
 
         // Miembros
-        List<WorshipUserDTO> members = worship.getMembers().stream()
-                .filter(m -> m.getRole() == GroupRole.MEMBER)
-                .map(m -> mapToWorkshipUserDTO(m.getUser()))
-                .toList();
+        Slice<WorshipUserDTO> members = worshipMemberRepository
+                .findUsersByWorshipAndRole(groupId, GroupRole.MEMBER, membersPage);
 
-        return WorshipDetailDTO.builder()
-                .idWorhship(worship.getIdWorship())
-                .name(worship.getName())
-                .address(worship.getAddress())
-                .phone(worship.getPhone())
-                .hour(worship.getHour())
-                .members(members)
-                .build();
-    }
-
-
-    private WorshipUserDTO mapToWorkshipUserDTO(User user) {
-        return WorshipUserDTO.builder()
-                .age(user.getAge())
-                .names(user.getNames())
-                .phone(user.getPhone())
-                .paternalSurname(user.getPaternalSurname())
-                .maternalSurname(user.getMaternalSurname())
-                .residencyCity(user.getResidencyCity())
-                .build();
+        return CatalogMapper.toDetailDTO(worship, members);
     }
 
 
@@ -323,7 +304,7 @@ public class WorshipService {
     @Transactional
     public void leaveWorship(Long idWorship) throws ModelNotFoundException {
 
-        User user = utilService.userInSession();
+        Long idUser = utilService.userIdInSession();
 
         Worship worship = worshipRepository.findById(idWorship)
                 .orElseThrow(() ->
@@ -334,7 +315,7 @@ public class WorshipService {
         WorshipMember membership = worshipMemberRepository
                 .findByWorshipIdWorshipAndUserIdUserAndRole(
                         worship.getIdWorship(),
-                        user.getIdUser(),
+                        idUser,
                         GroupRole.MEMBER
                 )
                 .orElse(null);
@@ -343,7 +324,7 @@ public class WorshipService {
         if (membership == null) {
             log.info(
                     "Usuario {} no está inscrito como MEMBER en el culto {}",
-                    user.getIdUser(),
+                    idUser,
                     worship.getIdWorship()
             );
             return;
@@ -354,7 +335,7 @@ public class WorshipService {
 
         log.info(
                 "🔴 Usuario {} salió del culto {}",
-                user.getIdUser(),
+                idUser,
                 worship.getIdWorship()
         );
     }
@@ -370,9 +351,9 @@ public class WorshipService {
     @Transactional
     public void deleteWorship(Long idWorship) throws ModelNotFoundException {
 
-        User admin = utilService.userInSession();
+        SessionUser admin = utilService.sessionUser();
 
-        if (!admin.getSimpleAuthorities().contains(Authority.ADMIN)) {
+        if (!admin.hasAuthority(Authority.ADMIN)) {
             throw new IllegalStateException("No autorizado para eliminar cultos");
         }
 
@@ -382,9 +363,10 @@ public class WorshipService {
                 );
 
         worshipRepository.delete(worship);
+        catalogVersionService.invalidate(Catalog.WORSHIPS);
 
         log.info("🔴 Culto {} eliminado por el administrador {}",
-                worship.getIdWorship(), admin.getIdUser());
+                worship.getIdWorship(), admin.idUser());
     }
 
 }
@@ -1,65 +1,55 @@
 package com.revoktek.services.specification;
 
+import com.revoktek.services.config.SearchFunctionContributor;
 import com.revoktek.services.model.User;
 import com.revoktek.services.model.enums.Authority;
-import jakarta.persistence.criteria.Join;
+import com.revoktek.services.utils.SearchUtil;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.List;
+
 public class UserSpecification {
 
+    // innodb_ft_ngram_token_size por defecto de MySQL
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
     public static Specification<User> hasAuthority(Authority authority) {
         return (root, query, cb) -> {
             if (authority == null) {
                 return null; // filtro opcional
             }
 
-            // Join directo al ElementCollection
-            Join<User, Authority> join = root.join("authorities");
-
-            // IMPORTANTE: el join ES el enum
-            return cb.equal(join, authority);
+            // MEMBER OF se traduce a un EXISTS sobre user_authorities:
+            // un join directo duplicaba al usuario por cada rol y desajustaba el conteo de la página
+            return cb.isMember(authority, root.<List<Authority>>get("authorities"));
         };
     }
 
 
-    public static Specification<User> usernameLike(String username) {
-        return (root, query, criteriaBuilder) -> {
-            if (username == null || username.isEmpty()) return null;
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("username")),
-                    "%" + username.toLowerCase() + "%");
-        };
+    public static Specification<User> usernameLike(String username, boolean prefix) {
+        return (root, query, criteriaBuilder) -> searchKeyMatches(root, criteriaBuilder, "searchUsername", username, prefix);
     }
 
-    public static Specification<User> namesLike(String names) {
-        return (root, query, criteriaBuilder) -> {
-            if (names == null || names.isEmpty()) return null;
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("names")),
-                    "%" + names.toLowerCase() + "%");
-        };
+    public static Specification<User> namesLike(String names, boolean prefix) {
+        return (root, query, criteriaBuilder) -> searchKeyMatches(root, criteriaBuilder, "searchNames", names, prefix);
     }
 
-    public static Specification<User> paternalSurnameLike(String paternalSurname) {
-        return (root, query, criteriaBuilder) -> {
-            if (paternalSurname == null || paternalSurname.isEmpty()) return null;
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("paternalSurname")),
-                    "%" + paternalSurname.toLowerCase() + "%");
-        };
+    public static Specification<User> paternalSurnameLike(String paternalSurname, boolean prefix) {
+        return (root, query, criteriaBuilder) ->
+                searchKeyMatches(root, criteriaBuilder, "searchPaternalSurname", paternalSurname, prefix);
     }
 
-    public static Specification<User> maternalSurnameLike(String maternalSurname) {
-        return (root, query, criteriaBuilder) -> {
-            if (maternalSurname == null || maternalSurname.isEmpty()) return null;
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("maternalSurname")),
-                    "%" + maternalSurname.toLowerCase() + "%");
-        };
+    public static Specification<User> maternalSurnameLike(String maternalSurname, boolean prefix) {
+        return (root, query, criteriaBuilder) ->
+                searchKeyMatches(root, criteriaBuilder, "searchMaternalSurname", maternalSurname, prefix);
     }
 
-    public static Specification<User> residencyCityLike(String residencyCity) {
-        return (root, query, criteriaBuilder) -> {
-            if (residencyCity == null || residencyCity.isEmpty()) return null;
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("residencyCity")),
-                    "%" + residencyCity.toLowerCase() + "%");
-        };
+    public static Specification<User> residencyCityLike(String residencyCity, boolean prefix) {
+        return (root, query, criteriaBuilder) ->
+                searchKeyMatches(root, criteriaBuilder, "searchResidencyCity", residencyCity, prefix);
     }
 
     public static Specification<User> hasAge(Integer age) {
@@ -75,5 +65,35 @@ public class UserSpecification {
             return criteriaBuilder.equal(root.get("enabled"), enabled);
         };
     }
-}
 
+    /**
+     * Filtro sobre una columna search_* (texto ya normalizado por UserSearchKeysListener).
+     * - prefix = true: LIKE 'term%' sobre el índice B-tree
+     * - término más corto que un token ngram: LIKE '%term%' (el índice FULLTEXT no lo puede resolver;
+     *   recorre la tabla, pero mantiene la semántica de "contiene")
+     * - en otro caso: búsqueda de frase en el índice FULLTEXT ngram (equivale a "contiene")
+     */
+    private static Predicate searchKeyMatches(Root<User> root, CriteriaBuilder criteriaBuilder,
+                                              String attribute, String value, boolean prefix) {
+        if (value == null || value.isEmpty()) return null;
+        String term = SearchUtil.fold(value);
+        if (term.isEmpty()) return null;
+
+        if (prefix) {
+            return criteriaBuilder.like(root.<String>get(attribute), escapeLike(term) + "%", '\\');
+        }
+        if (term.length() < NGRAM_TOKEN_SIZE) {
+            return criteriaBuilder.like(root.<String>get(attribute), "%" + escapeLike(term) + "%", '\\');
+        }
+        // las comillas delimitan la frase en BOOLEAN MODE; dentro de ella se ignoran los operadores
+        String phrase = "\"" + term.replace("\"", "") + "\"";
+        return criteriaBuilder.greaterThan(
+                criteriaBuilder.function(SearchFunctionContributor.MATCH_AGAINST, Double.class,
+                        root.get(attribute), criteriaBuilder.literal(phrase)),
+                0.0);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -19,43 +19,78 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
     private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+    public static final String CLAIM_ID_USER = "idUser";
+    // potencia de 2: el segmento se elige con los bits bajos del hash de la llave
+    private static final int VERIFIED_CACHE_SEGMENTS = 16;
     private final Algorithm signToken;
     private final Algorithm signRefreshToken;
     private final Algorithm externalSignToken;
+    // JWTVerifier es inmutable y thread-safe: se construye una sola vez por algoritmo
+    private final JWTVerifier tokenVerifier;
+    private final JWTVerifier refreshTokenVerifier;
+    private final JWTVerifier externalTokenVerifier;
     private final UserService userService;
+    // tokens ya verificados, por SHA-256 del token: LRU acotado en segmentos con lock propio;
+    // cada entrada vence a más tardar cuando vence el token
+    private final Map<String, VerifiedToken>[] verifiedTokens;
 
-    public JwtUtil(@Value("${key.secret}") String keySecret, @Value("${key.secretRefresh}") String keySecretRefresh,  @Value("${key.secretExternal}") String keySecretExternal, UserService userService) {
+    public JwtUtil(@Value("${key.secret}") String keySecret, @Value("${key.secretRefresh}") String keySecretRefresh,  @Value("${key.secretExternal}") String keySecretExternal, UserService userService,
+                   @Value("${jwt.verifiedCache.maxEntries:10000}") int verifiedTokensMaxEntries) {
         this.signToken = Algorithm.HMAC512(keySecret);
         this.signRefreshToken = Algorithm.HMAC512(keySecretRefresh);
         this.externalSignToken = Algorithm.HMAC512(keySecretExternal);
+        this.tokenVerifier = JWT.require(signToken).build();
+        this.refreshTokenVerifier = JWT.require(signRefreshToken).build();
+        this.externalTokenVerifier = JWT.require(externalSignToken).build();
         this.userService = userService;
+        this.verifiedTokens = newVerifiedTokenSegments(verifiedTokensMaxEntries);
+    }
 
+    @SuppressWarnings("unchecked")
+    private static Map<String, VerifiedToken>[] newVerifiedTokenSegments(int maxEntries) {
+        int segmentMaxEntries = Math.max(1, (maxEntries + VERIFIED_CACHE_SEGMENTS - 1) / VERIFIED_CACHE_SEGMENTS);
+        Map<String, VerifiedToken>[] segments = new Map[VERIFIED_CACHE_SEGMENTS];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                    return size() > segmentMaxEntries;
+                }
+            };
+        }
+        return segments;
     }
 
     public String getRefreshedToken(String refreshToken) {
-        JWTVerifier verifier = JWT.require(signRefreshToken).build();
-        DecodedJWT decodedJWT = verifier.verify(refreshToken);
+        DecodedJWT decodedJWT = refreshTokenVerifier.verify(refreshToken);
         String username = decodedJWT.getSubject();
         // enable with flag security
         User user = userService.loadUserByUsername(username);
-        return getToken(user.getUsername(), user.getSimpleAuthorities());
+        return getToken(user.getIdUser(), user.getUsername(), user.getSimpleAuthorities());
     }
 
-    public String getToken(String username, List<Authority> authorities) {
+    public String getToken(Long idUser, String username, List<Authority> authorities) {
         long now = System.currentTimeMillis();
         // 2 hour
         int tokenExpirationTime = 1000 * 60 * 60 * 8;
         return JWT.create()
                 .withSubject(username)
+                .withClaim(CLAIM_ID_USER, idUser)
                 .withClaim("authorities", authorities.stream().map(Authority::name).toList())
                 .withIssuedAt(new Date(now))
                 .withExpiresAt(new Date(now + tokenExpirationTime))
@@ -75,24 +110,34 @@ public class JwtUtil {
 
     public String getSubject(String jwt) {
         try {
-            JWTVerifier verifier = JWT.require(signToken).build();
+            VerifiedToken cached = cachedToken(cacheKey(jwt));
+            if (cached != null) {
+                return cached.username();
+            }
             // verify sign and expires time
-            return verifier.verify(jwt).getSubject();
+            return tokenVerifier.verify(jwt).getSubject();
         } catch (Exception ignored) {
             return null;
         }
     }
 
     public VerifyTokenResult verifyToken(String token) {
+        String key = cacheKey(token);
+        VerifiedToken cached = cachedToken(key);
+        if (cached != null) {
+            return new VerifyTokenResult(cached.toAuthenticationToken());
+        }
         try {
-            JWTVerifier verifier = JWT.require(signToken).build();
             // verify sign and expires time
-            DecodedJWT decodedJWT = verifier.verify(token);
+            DecodedJWT decodedJWT = tokenVerifier.verify(token);
             String username = decodedJWT.getSubject();
             Claim authoritiesClaim = decodedJWT.getClaim("authorities");
-            Collection<GrantedAuthority> authorities = authoritiesClaim.asList(String.class).stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
-            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
-            return new VerifyTokenResult(authenticationToken);
+            List<GrantedAuthority> authorities = authoritiesClaim.asList(String.class).stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+            // id del usuario para servicios que no necesitan la entidad (null en tokens anteriores al claim)
+            VerifiedToken verified = new VerifiedToken(username, authorities, decodedJWT.getClaim(CLAIM_ID_USER).asLong(),
+                    decodedJWT.getExpiresAt() != null ? decodedJWT.getExpiresAt().getTime() : System.currentTimeMillis());
+            cacheVerifiedToken(key, verified);
+            return new VerifyTokenResult(verified.toAuthenticationToken());
         } catch (Exception e) {
             return new VerifyTokenResult(e.getClass().getSimpleName(), e.getMessage());
         }
@@ -101,9 +146,8 @@ public class JwtUtil {
     public VerifyTokenResult verifyExternalToken(String token) {
         try {
             log.info("🟡 Token received: {}", token);
-            JWTVerifier verifier = JWT.require(externalSignToken).build();
             // verify sign and expires time
-            DecodedJWT decodedJWT = verifier.verify(token);
+            DecodedJWT decodedJWT = externalTokenVerifier.verify(token);
             String username = decodedJWT.getSubject();
             Claim authoritiesClaim = decodedJWT.getClaim("authorities");
             Collection<GrantedAuthority> authorities = authoritiesClaim.asList(String.class).stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
@@ -122,6 +166,65 @@ public class JwtUtil {
         return endpointsRequiringAdditionalToken.stream().anyMatch(uri::startsWith);
     }
 
+    /**
+     * Token verificado vigente, o null si no está en caché o ya venció (en ese caso se descarta).
+     */
+    private VerifiedToken cachedToken(String key) {
+        Map<String, VerifiedToken> segment = segment(key);
+        synchronized (segment) {
+            VerifiedToken cached = segment.get(key);
+            if (cached != null && cached.isExpired()) {
+                segment.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Guarda un token verificado. Con el segmento lleno se desaloja el de uso menos reciente,
+     * en tiempo constante.
+     */
+    private void cacheVerifiedToken(String key, VerifiedToken verified) {
+        Map<String, VerifiedToken> segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, verified);
+        }
+    }
+
+    private Map<String, VerifiedToken> segment(String key) {
+        return verifiedTokens[key.hashCode() & (VERIFIED_CACHE_SEGMENTS - 1)];
+    }
+
+    /**
+     * Llave de caché: SHA-256 del token en Base64, para no guardar la credencial en claro en el heap.
+     */
+    private static String cacheKey(String token) {
+        try {
+            // MessageDigest no es thread-safe; obtener una instancia es barato
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // todo JRE incluye SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Datos ya validados de un token de acceso. Es inmutable; por cada petición se crea un
+     * UsernamePasswordAuthenticationToken nuevo porque Spring Security lo puede modificar.
+     */
+    private record VerifiedToken(String username, List<GrantedAuthority> authorities, Long idUser, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+
+        UsernamePasswordAuthenticationToken toAuthenticationToken() {
+            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
+            authenticationToken.setDetails(idUser);
+            return authenticationToken;
+        }
+    }
 
     @Getter
     @Setter
@@ -0,0 +1,114 @@
+package com.revoktek.services.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limitador token bucket con una cubeta por llave exacta y memoria acotada.
+ * <p>
+ * Las llaves (IP, username|IP) se guardan tal cual en un LRU de a lo más {@code maxKeys} entradas,
+ * repartido en segmentos con lock propio para que las peticiones concurrentes no compitan por un
+ * solo monitor. Dos llaves distintas nunca comparten cubeta, así que quien rota usernames o IPs
+ * solo gasta sus propias cubetas y no puede agotar la de un usuario legítimo.
+ * </p>
+ * <p>
+ * Con el LRU lleno se desaloja la llave usada hace más tiempo y, si vuelve, arranca con la cubeta
+ * llena. Una llave que sigue atacando se mantiene reciente y conserva su límite; lo único que se
+ * olvida es el consumo de llaves inactivas, lo que como mucho hace al limitador más permisivo con
+ * ellas, nunca más estricto con otras.
+ * </p>
+ */
+public class TokenBucketRateLimiter {
+
+    // potencia de 2: el segmento se elige con los bits bajos del hash de la llave
+    private static final int SEGMENTS = 16;
+
+    private final Map<String, Bucket>[] segments;
+    private final long capacity;
+    private final long millisPerToken;
+
+    /**
+     * @param capacity       tokens máximos (ráfaga permitida)
+     * @param refillTokens   tokens que se recargan por periodo
+     * @param refillPeriodMs duración del periodo en milisegundos
+     * @param maxKeys        llaves distintas que se recuerdan a la vez
+     */
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(long capacity, long refillTokens, long refillPeriodMs, int maxKeys) {
+        if (capacity < 1 || refillTokens < 1 || refillPeriodMs < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("Configuración de rate limit inválida");
+        }
+        int segmentMaxKeys = Math.max(1, (maxKeys + SEGMENTS - 1) / SEGMENTS);
+        this.segments = new Map[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > segmentMaxKeys;
+                }
+            };
+        }
+        this.capacity = capacity;
+        this.millisPerToken = Math.max(1, refillPeriodMs / refillTokens);
+    }
+
+    /**
+     * Consume un token para la llave indicada.
+     *
+     * @return true si había token disponible; false si la llave excedió su límite
+     */
+    public boolean tryAcquire(String key) {
+        long now = System.currentTimeMillis();
+        Map<String, Bucket> segment = segments[spread(key.hashCode()) & (SEGMENTS - 1)];
+
+        synchronized (segment) {
+            Bucket bucket = segment.get(key);
+            if (bucket == null) {
+                // llave nueva (o desalojada): inicia llena
+                bucket = new Bucket(capacity, now);
+                segment.put(key, bucket);
+            } else {
+                long refill = (now - bucket.timestamp) / millisPerToken;
+                if (refill > 0) {
+                    bucket.tokens = Math.min(capacity, bucket.tokens + refill);
+                    // se avanza solo lo que corresponde a tokens completos para no perder fracciones
+                    bucket.timestamp = bucket.tokens == capacity ? now : bucket.timestamp + refill * millisPerToken;
+                }
+            }
+
+            if (bucket.tokens == 0) {
+                return false;
+            }
+            bucket.tokens--;
+            return true;
+        }
+    }
+
+    /**
+     * Segundos aproximados hasta que se recarga un token (para el header Retry-After).
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, (millisPerToken + 999) / 1000);
+    }
+
+    private static int spread(int hash) {
+        // mezcla los bits altos para que llaves parecidas (IPs consecutivas) no caigan en el mismo segmento
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash;
+    }
+
+    /**
+     * Estado de una llave; solo se lee y modifica bajo el lock de su segmento.
+     */
+    private static final class Bucket {
+        private long tokens;
+        private long timestamp;
+
+        private Bucket(long tokens, long timestamp) {
+            this.tokens = tokens;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.revoktek.services;
+
+import com.revoktek.services.model.User;
+import com.revoktek.services.model.enums.Authority;
+import com.revoktek.services.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base de las pruebas de integración contra MySQL real (Testcontainers).
+ * <p>
+ * Se usa MySQL y no una base embebida porque los servicios dependen de SQL propio de MySQL
+ * (ON DUPLICATE KEY UPDATE, índices FULLTEXT con ngram, GROUP_CONCAT). El contenedor se inicia una sola vez
+ * y lo comparten todas las clases de prueba; sin Docker disponible las pruebas se omiten.
+ * </p>
+ * <p>
+ * También reúne los datos de prueba comunes: usuarios con rol USER y su autenticación.
+ * </p>
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlContainerTest {
+
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        if (!MYSQL.isRunning()) {
+            MYSQL.start();
+        }
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        // el barrido de apartados no debe correr a mitad de una prueba
+        registry.add("specialEvent.hold.sweepDelayMs", () -> "3600000");
+    }
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    protected User createUser() {
+        return createUsers(1).get(0);
+    }
+
+    /**
+     * Crea usuarios con rol USER, sin dependientes y con username único.
+     */
+    protected List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername(UUID.randomUUID() + "@test.com");
+            user.setPassword("secret");
+            user.setNames("Prueba");
+            user.setNumberDependents(0);
+            user.setAuthorities(new ArrayList<>(List.of(Authority.USER)));
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+
+    /**
+     * Deja al usuario como autenticado en el hilo actual, igual que JwtAuthorizationFilter
+     * (username como principal e idUser en los details).
+     */
+    protected static void authenticate(User user) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority(Authority.USER.name())));
+        authentication.setDetails(user.getIdUser());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -0,0 +1,162 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.MySqlContainerTest;
+import com.revoktek.services.model.Group;
+import com.revoktek.services.model.SpecialEvent;
+import com.revoktek.services.model.User;
+import com.revoktek.services.model.Worship;
+import com.revoktek.services.repository.GroupRepository;
+import com.revoktek.services.repository.SpecialEventRepository;
+import com.revoktek.services.repository.WorshipRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Las inscripciones (grupo, culto y evento especial) ejecutan el mismo número de sentencias
+ * sin importar cuántos miembros tenga ya el grupo, culto o evento.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JoinStatementCountTest extends MySqlContainerTest {
+
+    private static final int MANY_MEMBERS = 100;
+
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private WorshipService worshipService;
+    @Autowired
+    private SpecialEventService specialEventService;
+    @Autowired
+    private GroupRepository groupRepository;
+    @Autowired
+    private WorshipRepository worshipRepository;
+    @Autowired
+    private SpecialEventRepository specialEventRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void joinGroupStatementCountDoesNotGrowWithMembers() throws Exception {
+        Long small = createGroup(1);
+        Long large = createGroup(MANY_MEMBERS);
+
+        long statementsSmall = statementsFor(() -> groupService.joinGroup(small));
+        long statementsLarge = statementsFor(() -> groupService.joinGroup(large));
+
+        assertEquals(statementsSmall, statementsLarge);
+    }
+
+    @Test
+    void joinWorshipStatementCountDoesNotGrowWithMembers() throws Exception {
+        Long small = createWorship(1);
+        Long large = createWorship(MANY_MEMBERS);
+
+        long statementsSmall = statementsFor(() -> worshipService.joinWorship(small));
+        long statementsLarge = statementsFor(() -> worshipService.joinWorship(large));
+
+        assertEquals(statementsSmall, statementsLarge);
+    }
+
+    @Test
+    void joinSpecialEventStatementCountDoesNotGrowWithMembers() throws Exception {
+        Long small = createSpecialEvent(1);
+        Long large = createSpecialEvent(MANY_MEMBERS);
+
+        long statementsSmall = statementsFor(() -> specialEventService.joinWorship(small));
+        long statementsLarge = statementsFor(() -> specialEventService.joinWorship(large));
+
+        assertEquals(statementsSmall, statementsLarge);
+    }
+
+    /**
+     * Ejecuta la inscripción con un usuario nuevo (sin nada en caché) y cuenta las sentencias preparadas.
+     */
+    private long statementsFor(Join join) throws Exception {
+        authenticate(createUser());
+        statistics.clear();
+        join.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long createGroup(int members) {
+        Long idGroup = groupRepository.save(Group.builder()
+                .name("Grupo " + UUID.randomUUID())
+                .dayOfWeek(DayOfWeek.MONDAY)
+                .hour(LocalTime.of(19, 0))
+                .build()).getIdGroup();
+        insertMembers("group_members", "group_id", idGroup, members);
+        return idGroup;
+    }
+
+    private Long createWorship(int members) {
+        Long idWorship = worshipRepository.save(Worship.builder()
+                .name("Culto " + UUID.randomUUID())
+                .dayOfWeek(DayOfWeek.SUNDAY)
+                .hour(LocalTime.of(10, 0))
+                .build()).getIdWorship();
+        insertMembers("worship_members", "worship_id", idWorship, members);
+        return idWorship;
+    }
+
+    private Long createSpecialEvent(int members) {
+        int slots = MANY_MEMBERS * 2;
+        Long idSpecialEvent = specialEventRepository.save(SpecialEvent.builder()
+                .name("Evento " + UUID.randomUUID())
+                .dayOfWeek(DayOfWeek.SATURDAY)
+                .hour(LocalTime.of(18, 0))
+                .numberOfSlots(slots)
+                .slotsRemaining(slots - members)
+                .build()).getIdSpecialEvent();
+        insertMembers("special_event_members", "special_event_id", idSpecialEvent, members);
+        return idSpecialEvent;
+    }
+
+    private void insertMembers(String table, String parentColumn, Long idParent, int members) {
+        List<User> users = createUsers(members);
+        Timestamp joinedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO " + table + " (" + parentColumn + ", user_id, role, joined_at) VALUES (?, ?, 'MEMBER', ?)",
+                users, users.size(), (ps, user) -> {
+                    ps.setLong(1, idParent);
+                    ps.setLong(2, user.getIdUser());
+                    ps.setTimestamp(3, joinedAt);
+                });
+    }
+
+    @FunctionalInterface
+    private interface Join {
+        void run() throws Exception;
+    }
+}
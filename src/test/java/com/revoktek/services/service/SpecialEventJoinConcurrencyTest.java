@@ -0,0 +1,147 @@
+package com.revoktek.services.service;
+
+import com.revoktek.services.MySqlContainerTest;
+import com.revoktek.services.model.SpecialEvent;
+import com.revoktek.services.model.User;
+import com.revoktek.services.repository.SpecialEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inscripciones concurrentes a un evento especial: nunca se sobrevende y un mismo usuario
+ * que se inscribe varias veces a la vez obtiene una sola inscripción. Al salir se devuelven
+ * los cupos que se descontaron al inscribirse.
+ */
+class SpecialEventJoinConcurrencyTest extends MySqlContainerTest {
+
+    private static final int THREADS = 40;
+    private static final int SLOTS = 10;
+
+    @Autowired
+    private SpecialEventService specialEventService;
+    @Autowired
+    private SpecialEventRepository specialEventRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UtilService utilService;
+
+    @Test
+    void parallelJoinsNeverOversell() throws Exception {
+        Long idSpecialEvent = createEvent(SLOTS);
+        List<User> users = createUsers(THREADS);
+
+        List<Boolean> results = runConcurrently(users, idSpecialEvent);
+
+        long joined = results.stream().filter(Boolean::booleanValue).count();
+        assertEquals(SLOTS, joined);
+        assertEquals(0, specialEventRepository.findById(idSpecialEvent).orElseThrow().getSlotsRemaining());
+        assertEquals(SLOTS, count("special_event_members", idSpecialEvent));
+        assertEquals(THREADS - SLOTS, count("special_event_waitlist", idSpecialEvent));
+    }
+
+    @Test
+    void sameUserRacingItselfJoinsOnce() throws Exception {
+        Long idSpecialEvent = createEvent(SLOTS);
+        User user = createUser();
+        List<User> sameUser = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            sameUser.add(user);
+        }
+
+        List<Boolean> results = runConcurrently(sameUser, idSpecialEvent);
+
+        assertTrue(results.stream().allMatch(Boolean::booleanValue), "todas las peticiones deben ser idempotentes");
+        assertEquals(SLOTS - 1, specialEventRepository.findById(idSpecialEvent).orElseThrow().getSlotsRemaining());
+        assertEquals(1, count("special_event_members", idSpecialEvent));
+        assertEquals(0, count("special_event_waitlist", idSpecialEvent));
+    }
+
+    @Test
+    void leaveRestoresSlotsTakenAtJoin() throws Exception {
+        Long idSpecialEvent = createEvent(SLOTS);
+        User user = createUser();
+        authenticate(user);
+        try {
+            specialEventService.joinWorship(idSpecialEvent);
+
+            // los dependientes cambian después de inscribirse
+            user.setNumberDependents(3);
+            userRepository.save(user);
+            utilService.evictUserInSession(user.getUsername());
+
+            specialEventService.leaveSpecialEvent(idSpecialEvent);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertEquals(SLOTS, specialEventRepository.findById(idSpecialEvent).orElseThrow().getSlotsRemaining());
+        assertEquals(0, count("special_event_members", idSpecialEvent));
+    }
+
+    /**
+     * Lanza un joinWorship por usuario, todos liberados al mismo tiempo.
+     * Cualquier excepción (por ejemplo una violación de la restricción única) hace fallar la prueba.
+     */
+    private List<Boolean> runConcurrently(List<User> users, Long idSpecialEvent) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(users.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (User user : users) {
+                Callable<Boolean> join = () -> {
+                    authenticate(user);
+                    try {
+                        start.await();
+                        return specialEventService.joinWorship(idSpecialEvent);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                };
+                futures.add(executor.submit(join));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createEvent(int slots) {
+        return specialEventRepository.save(SpecialEvent.builder()
+                .name("Evento " + UUID.randomUUID())
+                .dayOfWeek(DayOfWeek.SATURDAY)
+                .hour(LocalTime.of(18, 0))
+                .numberOfSlots(slots)
+                .slotsRemaining(slots)
+                .build()).getIdSpecialEvent();
+    }
+
+    private int count(String table, Long idSpecialEvent) {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE special_event_id = ?", Integer.class, idSpecialEvent);
+        return rows != null ? rows : 0;
+    }
+}
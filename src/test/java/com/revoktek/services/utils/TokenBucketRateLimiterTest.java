@@ -0,0 +1,55 @@
+package com.revoktek.services.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cada llave tiene su propia cubeta: rotar muchas llaves no agota el límite de otra.
+ */
+class TokenBucketRateLimiterTest {
+
+    private static final long CAPACITY = 5;
+
+    @Test
+    void keyIsLimitedAfterItsBurst() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(CAPACITY, CAPACITY, 60_000, 1024);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(limiter.tryAcquire("victim|10.0.0.1"));
+        }
+        assertFalse(limiter.tryAcquire("victim|10.0.0.1"));
+    }
+
+    @Test
+    void cyclingOtherKeysDoesNotDrainAnUnrelatedKey() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(CAPACITY, CAPACITY, 60_000, 100_000);
+
+        // el atacante agota miles de llaves propias; con cubetas por hash alguna compartiría la de la víctima
+        for (int user = 0; user < 50_000; user++) {
+            String key = "user" + user + "|203.0.113.7";
+            while (limiter.tryAcquire(key)) {
+                // consume toda la ráfaga de la llave
+            }
+        }
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(limiter.tryAcquire("victim|10.0.0.1"));
+        }
+    }
+
+    @Test
+    void activeKeyKeepsItsLimitWhileIdleKeysAreEvicted() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(CAPACITY, CAPACITY, 60_000, 64);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(limiter.tryAcquire("attacker"));
+        }
+        for (int user = 0; user < 1_000; user++) {
+            limiter.tryAcquire("user" + user);
+            // la llave que sigue intentando se mantiene reciente en el LRU y no recupera tokens
+            assertFalse(limiter.tryAcquire("attacker"));
+        }
+    }
+}